@@ -0,0 +1,82 @@
+package com.example.proxy.bench;
+
+import com.example.proxy.security.jws.DetachedJwsSigner;
+import com.example.proxy.support.TestKeys;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.util.Base64;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detached PS256 signatures per second (2048-bit RSA) over a payment consent and a pain.001 body:
+ * {@link DetachedJwsSigner#sign} against the path it replaced, which built the header, a Nimbus
+ * {@link RSASSASigner} and a {@link JWSObject} on every call. Single-threaded scores are per core;
+ * the {@code Contended} variants run four threads on one signer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwsSignBenchmark {
+
+  @Param({"payloads/payment-consent-request.json", "payloads/pain001-small.xml"})
+  String payload;
+
+  DetachedJwsSigner signer;
+  PrivateKey privateKey;
+  X509Certificate cert;
+  byte[] body;
+  String text;
+
+  @Setup
+  public void setup() throws Exception {
+    KeyPair keys = TestKeys.rsa();
+    cert = TestKeys.selfSigned(keys, "bench-signer");
+    privateKey = keys.getPrivate();
+    Path p12 = TestKeys.pkcs12("signer", keys, cert);
+    signer = new DetachedJwsSigner(p12.toString(), TestKeys.PASSWORD, "signer", TestKeys.PASSWORD);
+    body = Payloads.bytes(payload);
+    text = new String(body, StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public String sign() throws Exception { return signer.sign(body); }
+
+  @Benchmark
+  @Threads(4)
+  public String signContended() throws Exception { return signer.sign(body); }
+
+  @Benchmark
+  public String signBaseline() throws Exception { return baseline(text); }
+
+  @Benchmark
+  @Threads(4)
+  public String signBaselineContended() throws Exception { return baseline(text); }
+
+  /** The signer as it was before the header and Signature were reused. */
+  private String baseline(String payload) throws Exception {
+    JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.PS256)
+        .criticalParams(Collections.singleton("b64"))
+        .customParam("b64", false)
+        .x509CertChain(List.of(Base64.encode(cert.getEncoded())))
+        .build();
+    JWSObject jwsObject = new JWSObject(header, new Payload(payload));
+    jwsObject.sign(new RSASSASigner(privateKey));
+    String[] parts = jwsObject.serialize(false).split("\\.");
+    return parts[0] + ".." + parts[2];
+  }
+}
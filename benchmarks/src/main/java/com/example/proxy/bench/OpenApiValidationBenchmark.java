@@ -0,0 +1,103 @@
+package com.example.proxy.bench;
+
+import com.example.proxy.validation.OpenApiValidatorUtil;
+import com.example.proxy.validation.OperationIndex;
+import com.example.proxy.validation.ResolvedOperation;
+import org.openapi4j.operation.validator.model.Request;
+import org.openapi4j.operation.validator.model.Response;
+import org.openapi4j.operation.validator.model.impl.Body;
+import org.openapi4j.operation.validator.model.impl.DefaultRequest;
+import org.openapi4j.operation.validator.model.impl.DefaultResponse;
+import org.openapi4j.parser.OpenApi3Parser;
+import org.openapi4j.parser.model.v3.OpenApi3;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * openapi4j validation through {@link OpenApiValidatorUtil}: the cached {@link ResolvedOperation} path used
+ * by the proxy against the per-call overloads that build a validator and re-scan the spec each time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OpenApiValidationBenchmark {
+
+  private static final String BASE = "/proxy/uae/ob";
+  private static final String INTERACTION_ID = "93bac548-d2de-4546-b106-880a5018460d";
+
+  OpenApi3 api;
+  OperationIndex index;
+  ResolvedOperation balances;
+  ResolvedOperation consent;
+  Request balancesRequest;
+  Response balancesResponse;
+  Request consentRequest;
+  Response consentResponse;
+
+  @Setup
+  public void setup() throws Exception {
+    api = new OpenApi3Parser().parse(Payloads.file("openapi/uae-ob-bench.yaml").toFile(), true);
+    index = new OperationIndex("bench", api);
+    balances = require(index.resolve("GET", BASE + "/accounts/acc-7f3c1a2e-0001/balances"));
+    consent = require(index.resolve("POST", BASE + "/payment-consents"));
+
+    balancesRequest = new DefaultRequest.Builder(BASE + "/accounts/acc-7f3c1a2e-0001/balances", Request.Method.GET)
+        .header("x-fapi-interaction-id", INTERACTION_ID)
+        .header("x-fapi-customer-ip-address", "104.25.212.99")
+        .build();
+    balancesResponse = json(200, "payloads/balances-response.json");
+    consentRequest = new DefaultRequest.Builder(BASE + "/payment-consents", Request.Method.POST)
+        .header("x-fapi-interaction-id", INTERACTION_ID)
+        .header("Content-Type", "application/json")
+        .body(Body.from(Payloads.string("payloads/payment-consent-request.json")))
+        .build();
+    consentResponse = json(201, "payloads/payment-consent-response.json");
+
+    // a benchmark of the failure path would be meaningless if the payloads did not validate
+    cachedBalancesRequest();
+    cachedBalancesResponse();
+    cachedConsentRequest();
+    cachedConsentResponse();
+  }
+
+  private static ResolvedOperation require(ResolvedOperation op){
+    if (op==null) throw new IllegalStateException("Benchmark spec does not resolve the expected operation");
+    return op;
+  }
+
+  private static Response json(int status, String resource){
+    return new DefaultResponse.Builder(status)
+        .header("Content-Type", "application/json")
+        .body(Body.from(Payloads.string(resource)))
+        .build();
+  }
+
+  @Benchmark
+  public ResolvedOperation resolveOperation(){
+    return index.resolve("GET", BASE + "/accounts/acc-7f3c1a2e-0001/balances");
+  }
+
+  @Benchmark
+  public void cachedBalancesRequest() throws Exception { OpenApiValidatorUtil.validateRequest(balances, balancesRequest); }
+
+  @Benchmark
+  public void cachedBalancesResponse() throws Exception { OpenApiValidatorUtil.validateResponse(balances, balancesResponse); }
+
+  @Benchmark
+  public void cachedConsentRequest() throws Exception { OpenApiValidatorUtil.validateRequest(consent, consentRequest); }
+
+  @Benchmark
+  public void cachedConsentResponse() throws Exception { OpenApiValidatorUtil.validateResponse(consent, consentResponse); }
+
+  @Benchmark
+  public void perCallConsentRequest() throws Exception { OpenApiValidatorUtil.validateRequest(api, consentRequest); }
+
+  @Benchmark
+  public void perCallConsentResponse() throws Exception {
+    OpenApiValidatorUtil.validateResponse(api, consentRequest, consentResponse);
+  }
+}
@@ -0,0 +1,57 @@
+package com.example.proxy.bench;
+
+import com.example.proxy.validation.Pain001Validator;
+import org.openjdk.jmh.annotations.*;
+
+import javax.xml.transform.stream.StreamSource;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Pain001Validator} on the checked-in 3-transaction file and on a bulk file built from it at setup
+ * by repeating its credit transfers ({@code transactions} per file).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Pain001ValidationBenchmark {
+
+  @Param({"3", "3000"})
+  int transactions;
+
+  Pain001Validator validator;
+  byte[] document;
+
+  @Setup
+  public void setup() throws Exception {
+    validator = new Pain001Validator(new StreamSource(
+        new ByteArrayInputStream(Payloads.bytes("payloads/pain.001.001.03.xsd"))));
+    String small = Payloads.string("payloads/pain001-small.xml");
+    document = (transactions <= 3 ? small : bulk(small, transactions)).getBytes(StandardCharsets.UTF_8);
+    List<String> problems = validate();
+    if (!problems.isEmpty()) throw new IllegalStateException("Benchmark payload is invalid: " + problems);
+  }
+
+  /** Repeats the credit transfers of {@code small} until the file holds {@code count} of them. */
+  static String bulk(String small, int count){
+    int first = small.indexOf("<CdtTrfTxInf>");
+    int end = small.lastIndexOf("</CdtTrfTxInf>") + "</CdtTrfTxInf>".length();
+    String txs = small.substring(first, end);
+    int perBlock = 3;
+    StringBuilder sb = new StringBuilder(small.length() + txs.length() * (count / perBlock));
+    sb.append(small, 0, first);
+    for (int i=0; i<count/perBlock; i++) sb.append(txs).append("\n      ");
+    sb.append(small, end, small.length());
+    return sb.toString();
+  }
+
+  @Benchmark
+  public List<String> validate() throws Exception {
+    return validator.validate(new StreamSource(new ByteArrayInputStream(document)));
+  }
+}
@@ -0,0 +1,39 @@
+package com.example.proxy.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/** Loads the checked-in payloads and specs from the benchmark classpath. */
+public final class Payloads {
+  private Payloads(){}
+
+  public static byte[] bytes(String resource){
+    try(InputStream in = Payloads.class.getClassLoader().getResourceAsStream(resource)){
+      if (in==null) throw new IllegalArgumentException("Missing benchmark resource " + resource);
+      return in.readAllBytes();
+    }catch(IOException e){
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public static String string(String resource){
+    return new String(bytes(resource), StandardCharsets.UTF_8);
+  }
+
+  /** Copies a resource to a temp file, for APIs that only read from the file system. */
+  public static Path file(String resource){
+    try{
+      String name = resource.substring(resource.lastIndexOf('/') + 1);
+      Path p = Files.createTempFile("bench-", "-" + name);
+      Files.write(p, bytes(resource));
+      p.toFile().deleteOnExit();
+      return p;
+    }catch(IOException e){
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package com.example.proxy.bench;
+
+import com.example.proxy.config.RateLimitProperties;
+import com.example.proxy.config.RouteDefinition;
+import com.example.proxy.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link RateLimiter#tryAcquire} under 32 threads: every thread on one client's bucket (worst-case CAS
+ * contention), each thread on its own client, and the reject path of an exhausted bucket.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(32)
+public class RateLimiterBenchmark {
+
+  RateLimiter limiter;
+  RouteDefinition open;
+  RouteDefinition exhausted;
+  ServerHttpRequest shared;
+
+  @Setup
+  public void setup(){
+    limiter = new RateLimiter(new SimpleMeterRegistry(), 100_000, Duration.ofMinutes(10));
+    open = route("open", 1e9, 1_000_000);
+    exhausted = route("exhausted", 0.001, 1);
+    shared = request("tpp-shared");
+  }
+
+  private static RouteDefinition route(String name, double permitsPerSecond, int burst){
+    RateLimitProperties limit = new RateLimitProperties();
+    limit.setPermitsPerSecond(permitsPerSecond);
+    limit.setBurst(burst);
+    RouteDefinition r = new RouteDefinition();
+    r.setName(name);
+    r.setRateLimit(limit);
+    return r;
+  }
+
+  static ServerHttpRequest request(String clientId){
+    return MockServerHttpRequest.get("/proxy/uae-accounts/accounts")
+        .header("x-fapi-client-id", clientId)
+        .build();
+  }
+
+  @State(Scope.Thread)
+  public static class PerThreadClient {
+    private static final AtomicInteger IDS = new AtomicInteger();
+    ServerHttpRequest request;
+
+    @Setup
+    public void setup(){ request = request("tpp-" + IDS.incrementAndGet()); }
+  }
+
+  @Benchmark
+  public long sharedClient(){ return limiter.tryAcquire(open, shared); }
+
+  @Benchmark
+  public long distinctClients(PerThreadClient client){ return limiter.tryAcquire(open, client.request); }
+
+  @Benchmark
+  public long rejected(){ return limiter.tryAcquire(exhausted, shared); }
+}
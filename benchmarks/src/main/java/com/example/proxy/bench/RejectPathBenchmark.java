@@ -0,0 +1,94 @@
+package com.example.proxy.bench;
+
+import com.example.proxy.config.RouteConfig;
+import com.example.proxy.config.RouteDefinition;
+import com.example.proxy.controller.GenericProxyController;
+import com.example.proxy.error.ObErrorResponse;
+import com.example.proxy.registry.RouteRegistry;
+import com.example.proxy.validation.RouteValidators;
+import com.example.proxy.validation.ValidationResult;
+import com.example.proxy.validation.ValidatorChain;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full cost of a header rejection on one core: the route's {@link ValidatorChain}, the
+ * {@link ObErrorResponse} JSON body and the {@link ServerResponse} built from it. Run through
+ * {@link #main} it also checks each score against {@value #TARGET_PER_SECOND} rejections per second
+ * and exits non-zero when one falls short.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RejectPathBenchmark {
+
+  static final double TARGET_PER_SECOND = 100_000;
+
+  ServerHttpRequest badInteractionId;
+  ServerHttpRequest missingHeader;
+  ValidatorChain chain;
+
+  @Setup
+  public void setup(){
+    badInteractionId = MockServerHttpRequest.get("/proxy/uae-accounts/accounts/acc-7f3c1a2e-0001/balances")
+        .header("x-fapi-interaction-id", "not-a-uuid")
+        .header("x-customer-ip-address", "104.25.212.99")
+        .build();
+    missingHeader = MockServerHttpRequest.get("/proxy/uae-accounts/accounts/acc-7f3c1a2e-0001/balances")
+        .header("x-fapi-interaction-id", "93bac548-d2de-4546-b106-880a5018460d")
+        .header("x-fapi-customer-ip-address", "104.25.212.99")
+        .build();
+
+    RouteDefinition route = new RouteDefinition();
+    route.setName("uae-accounts");
+    route.setPath("/proxy/uae/accounts/**");
+    route.setProfile("UAE_OB");
+    route.setRequiredHeaders(List.of("x-fapi-interaction-id", "x-customer-ip-address"));
+    route.setHeaderPatterns(Map.of("x-customer-ip-address", "ip"));
+    RouteConfig cfg = new RouteConfig();
+    cfg.setRoutes(List.of(route));
+    chain = new RouteValidators(new RouteRegistry(cfg, new StandardEnvironment(), event -> {})).forRoute(route);
+  }
+
+  @Benchmark
+  public ServerResponse rejectBadInteractionId(){ return reject(badInteractionId); }
+
+  @Benchmark
+  public ServerResponse rejectMissingHeader(){ return reject(missingHeader); }
+
+  private ServerResponse reject(ServerHttpRequest request){
+    ValidationResult r = chain.validate(request);
+    if (r.isValid()) throw new IllegalStateException("request was expected to be rejected");
+    return GenericProxyController.toServerResponse(ObErrorResponse.of(HttpStatus.BAD_REQUEST, request, r)).block();
+  }
+
+  public static void main(String[] args) throws Exception {
+    Collection<RunResult> results = new Runner(new OptionsBuilder()
+        .include(RejectPathBenchmark.class.getSimpleName())
+        .build()).run();
+    boolean passed = true;
+    for (RunResult r: results){
+      double score = r.getPrimaryResult().getScore();
+      boolean ok = score >= TARGET_PER_SECOND;
+      passed &= ok;
+      System.out.printf("%s: %.0f rejections/s per core (target %.0f) %s%n",
+          r.getParams().getBenchmark(), score, TARGET_PER_SECOND, ok ? "ok" : "BELOW TARGET");
+    }
+    System.exit(passed ? 0 : 1);
+  }
+}
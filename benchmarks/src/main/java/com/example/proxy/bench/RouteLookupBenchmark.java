@@ -0,0 +1,66 @@
+package com.example.proxy.bench;
+
+import com.example.proxy.config.RouteDefinition;
+import com.example.proxy.registry.RouteTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RouteTable} lookups from 10 to 10k routes: by name (the {serviceName} path variable),
+ * by templated path, by catch-all path and a miss. Cost should stay flat as the table grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteLookupBenchmark {
+
+  @Param({"10", "100", "1000", "10000"})
+  int routes;
+
+  RouteTable table;
+  String name;
+  String templatedPath;
+  String catchAllPath;
+  String missPath;
+
+  @Setup
+  public void setup(){
+    List<RouteDefinition> defs = new ArrayList<>(routes * 2);
+    for (int i=0; i<routes; i++){
+      defs.add(route("bank-" + i + "-accounts", "/proxy/uae/bank-" + i + "/accounts/{AccountId}/balances"));
+      defs.add(route("bank-" + i + "-payments", "/proxy/uae/bank-" + i + "/payments/**"));
+    }
+    table = new RouteTable(defs);
+    int last = routes - 1;
+    name = "bank-" + last + "-accounts";
+    templatedPath = "/proxy/uae/bank-" + last + "/accounts/acc-7f3c1a2e-0001/balances";
+    catchAllPath = "/proxy/uae/bank-" + last + "/payments/domestic-payment-consents/pcon-5b1e9c7a/funds-confirmation";
+    missPath = "/proxy/uae/unknown-bank/accounts/acc-7f3c1a2e-0001/balances";
+  }
+
+  private static RouteDefinition route(String name, String path){
+    RouteDefinition r = new RouteDefinition();
+    r.setName(name);
+    r.setPath(path);
+    r.setTargetUrl("https://upstream.example/" + name);
+    return r;
+  }
+
+  @Benchmark
+  public RouteDefinition byName(){ return table.byName(name); }
+
+  @Benchmark
+  public RouteDefinition templatedPath(){ return table.match(templatedPath); }
+
+  @Benchmark
+  public RouteDefinition catchAllPath(){ return table.match(catchAllPath); }
+
+  @Benchmark
+  public RouteDefinition miss(){ return table.match(missPath); }
+}
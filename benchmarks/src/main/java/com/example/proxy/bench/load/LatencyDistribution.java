@@ -0,0 +1,52 @@
+package com.example.proxy.bench.load;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stub response delay. Spec forms:
+ * {@code none}, {@code fixed:5ms}, {@code uniform:2ms..20ms},
+ * {@code lognormal:5ms,80ms} (median, p99) and {@code bimodal:5ms,400ms,1} (fast, slow, slow percent).
+ */
+interface LatencyDistribution {
+
+  long sampleNanos(ThreadLocalRandom random);
+
+  /** z-score of the 99th percentile of the standard normal distribution. */
+  double Z99 = 2.3263478740408408;
+
+  static LatencyDistribution parse(String spec){
+    String s = spec.trim().toLowerCase(Locale.ROOT);
+    if (s.isEmpty() || s.equals("none") || s.equals("0")) return r -> 0L;
+    int colon = s.indexOf(':');
+    if (colon < 0) throw new IllegalArgumentException("Unknown latency distribution " + spec);
+    String kind = s.substring(0, colon);
+    String[] args = s.substring(colon + 1).split("\\.\\.|,");
+    switch (kind){
+      case "fixed": {
+        long d = nanos(args[0]);
+        return r -> d;
+      }
+      case "uniform": {
+        long lo = nanos(args[0]), hi = nanos(args[1]);
+        return r -> lo + (hi > lo ? r.nextLong(hi - lo + 1) : 0);
+      }
+      case "lognormal": {
+        double median = nanos(args[0]), p99 = nanos(args[1]);
+        double mu = Math.log(median), sigma = Math.log(p99 / median) / Z99;
+        return r -> (long) Math.exp(mu + sigma * r.nextGaussian());
+      }
+      case "bimodal": {
+        long fast = nanos(args[0]), slow = nanos(args[1]);
+        double slowPercent = Double.parseDouble(args[2]);
+        return r -> r.nextDouble(100.0) < slowPercent ? slow : fast;
+      }
+      default:
+        throw new IllegalArgumentException("Unknown latency distribution " + spec);
+    }
+  }
+
+  private static long nanos(String d){
+    return Options.duration(d.trim()).toNanos();
+  }
+}
@@ -0,0 +1,217 @@
+package com.example.proxy.bench.load;
+
+import com.example.proxy.ProxyUaeObApplication;
+import com.example.proxy.bench.Payloads;
+import com.example.proxy.support.StubUpstream;
+import com.example.proxy.support.TestKeys;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.unit.DataSize;
+import reactor.blockhound.BlockHound;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * End-to-end load test: starts {@link ProxyUaeObApplication} in-process, routes it to a {@link StubUpstream}
+ * over mTLS (certificates generated per run), drives open-model load at it and reports throughput,
+ * p50/p99/p99.9 latency, proxy CPU and allocation per request and the rate of TLS handshakes the stub saw.
+ * With gate options set it exits non-zero when a limit is missed, so it can serve as the acceptance check
+ * for performance changes.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.example.proxy.bench.load.LoadHarness \
+ *   --rate=2000 --duration=60s --warmup=20s --response-size=4KB --latency=lognormal:5ms,60ms \
+ *   --provider=JDK,OPENSSL --max-p99=40ms --max-error-rate=0.1
+ * </pre>
+ *
+ * With {@code --new-connections} the proxy's upstream pool gets a 1 ms {@code maxLifeTime}, so nearly every
+ * request opens a new mTLS connection; compare {@code handshakesPerSecond} and {@code cpuMicrosPerHandshake}
+ * across {@code --provider=JDK,OPENSSL} to see what each SSL provider costs per handshake.
+ *
+ * Options: {@code rate} (req/s), {@code duration}, {@code warmup}, {@code method} (GET|POST),
+ * {@code response-size}, {@code latency} (see {@link LatencyDistribution}), {@code connections},
+ * {@code max-in-flight}, {@code provider} (comma list, one proxy start each), {@code new-connections}, {@code blockhound},
+ * {@code out} (JSON report) and the gates {@code max-p99}, {@code max-p999}, {@code max-error-rate}
+ * (percent), {@code min-throughput}. Options whose name contains a dot are passed to the proxy as
+ * Spring properties, e.g. {@code --proxy.upstream-guard.enabled=false}.
+ */
+public final class LoadHarness {
+
+  private static final String INTERACTION_ID = "93bac548-d2de-4546-b106-880a5018460d";
+
+  public static void main(String[] args) throws Exception {
+    Options o = new Options(args);
+    double rate = o.number("rate", 1000);
+    Duration duration = o.duration("duration", Duration.ofSeconds(30));
+    Duration warmup = o.duration("warmup", Duration.ofSeconds(10));
+    String method = o.string("method", "GET").toUpperCase();
+    int responseBytes = (int) o.size("response-size", DataSize.ofKilobytes(2)).toBytes();
+    LatencyDistribution latency = LatencyDistribution.parse(o.string("latency", "lognormal:5ms,50ms"));
+    int connections = o.integer("connections", 500);
+    int maxInFlight = o.integer("max-in-flight", 20_000);
+    Path out = Path.of(o.string("out", "benchmarks/target/load-report.json"));
+
+    if (o.flag("blockhound")){
+      // needs -XX:+AllowRedefinitionToAddDeleteMethods on JDK 13+
+      BlockHound.install();
+    }
+
+    KeyPair caKeys = TestKeys.rsa();
+    X509Certificate ca = TestKeys.ca(caKeys, "Load Harness CA");
+    KeyPair stubKeys = TestKeys.rsa();
+    X509Certificate stubCert = TestKeys.issue(caKeys, ca, stubKeys.getPublic(), "stub-bank");
+    KeyPair clientKeys = TestKeys.rsa();
+    X509Certificate clientCert = TestKeys.issue(caKeys, ca, clientKeys.getPublic(), "proxy-tpp");
+    KeyPair jwsKeys = TestKeys.rsa();
+
+    Map<String, String> props = new LinkedHashMap<>();
+    props.put("server.port", "0");
+    props.put("management.server.port", "0");
+    props.put("security.mtls.keystore.path", TestKeys.pkcs12("client", clientKeys, clientCert, ca).toString());
+    props.put("security.mtls.keystore.password", TestKeys.PASSWORD);
+    props.put("security.mtls.truststore.path", TestKeys.truststore("ca", ca).toString());
+    props.put("security.mtls.truststore.password", TestKeys.PASSWORD);
+    props.put("security.mtls.reload-interval", "0");
+    props.put("security.jws.keystore.path",
+        TestKeys.pkcs12("signer", jwsKeys, TestKeys.selfSigned(jwsKeys, "proxy-signer")).toString());
+    props.put("security.jws.keystore.password", TestKeys.PASSWORD);
+    props.put("security.jws.key.alias", "signer");
+    props.put("security.jws.key.password", TestKeys.PASSWORD);
+    props.put("proxy.openapi.watch", "false");
+    props.put("proxy.routes[0].name", "stub");
+    props.put("proxy.routes[0].path", "/proxy/stub/**");
+    props.put("proxy.routes[0].profile", "UAE_OB");
+    props.put("proxy.routes[0].requiredHeaders[0]", "x-fapi-interaction-id");
+    props.put("proxy.routes[0].pool.maxConnections", Integer.toString(connections));
+    boolean newConnections = o.flag("new-connections");
+    if (newConnections){
+      // pooled connections older than this are closed on release/acquire instead of being reused
+      props.put("proxy.routes[0].pool.maxLifeTime", "1ms");
+    }
+
+    byte[] body = "POST".equals(method) ? Payloads.bytes("payloads/payment-consent-request.json") : null;
+    Map<String, String> headers = new LinkedHashMap<>();
+    headers.put("x-fapi-interaction-id", INTERACTION_ID);
+    headers.put("x-fapi-customer-ip-address", "104.25.212.99");
+    headers.put("x-fapi-client-id", "load-harness");
+    if (body!=null){
+      headers.put("content-type", "application/json");
+      headers.put("x-jws-signature", "inbound-signature-not-verified-by-the-proxy");
+    }
+
+    List<Map<String, Object>> reports = new ArrayList<>();
+    boolean passed = true;
+    try(StubUpstream stub = new StubUpstream(stubKeys, stubCert, ca, StubUpstream.json(responseBytes),
+        () -> latency.sampleNanos(ThreadLocalRandom.current()))){
+      props.put("proxy.routes[0].targetUrl",
+          "https://localhost:" + stub.port() + "/open-finance/v1/accounts/acc-7f3c1a2e-0001/balances");
+      for (String provider: o.string("provider", "JDK").split(",")){
+        props.put("security.mtls.provider", provider.trim());
+        Map<String, Object> report = runOnce(stub, props, o, rate, warmup, duration, method, body, headers, connections, maxInFlight);
+        report.put("provider", provider.trim());
+        report.put("newConnections", newConnections);
+        report.put("responseBytes", responseBytes);
+        report.put("latency", o.string("latency", "lognormal:5ms,50ms"));
+        List<String> failures = gate(o, report);
+        report.put("gateFailures", failures);
+        passed &= failures.isEmpty();
+        print(report);
+        reports.add(report);
+      }
+    }
+
+    Files.createDirectories(out.toAbsolutePath().getParent());
+    new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(out.toFile(), reports);
+    System.out.println("Report written to " + out.toAbsolutePath());
+    System.exit(passed ? 0 : 1);
+  }
+
+  private static Map<String, Object> runOnce(StubUpstream stub, Map<String, String> props, Options o, double rate, Duration warmup,
+                                             Duration duration, String method, byte[] body, Map<String, String> headers,
+                                             int connections, int maxInFlight){
+    List<String> args = new ArrayList<>();
+    props.forEach((k, v) -> args.add("--" + k + "=" + v));
+    o.forwarded().forEach((k, v) -> args.add("--" + k + "=" + v));
+
+    try(ConfigurableApplicationContext ctx = SpringApplication.run(ProxyUaeObApplication.class, args.toArray(String[]::new));
+        OpenLoadGenerator load = new OpenLoadGenerator(((WebServerApplicationContext) ctx).getWebServer().getPort(),
+            method, "/proxy/stub/accounts/acc-7f3c1a2e-0001/balances", body, headers, connections, maxInFlight)){
+      Duration drain = Duration.ofSeconds(10);
+      load.run(rate, warmup, drain);
+
+      // everything except the stub's (event loops and stub-delay timers) and the load generator's threads
+      // and this driver thread is the proxy
+      String driver = Thread.currentThread().getName();
+      Predicate<String> proxyThreads = n -> !n.startsWith("stub-") && !n.startsWith("loadgen-") && !n.equals(driver);
+      ThreadUsage before = ThreadUsage.snapshot(proxyThreads);
+      long handshakesBefore = stub.handshakes();
+      OpenLoadGenerator.Result r = load.run(rate, duration, drain);
+      ThreadUsage.Counters used = ThreadUsage.snapshot(proxyThreads).since(before);
+      long handshakes = stub.handshakes() - handshakesBefore;
+
+      Histogram h = r.latency();
+      long done = Math.max(1, r.ok());
+      Map<String, Object> report = new LinkedHashMap<>();
+      report.put("method", method);
+      report.put("offeredRate", rate);
+      report.put("throughput", round(r.throughput()));
+      report.put("ok", r.ok());
+      report.put("errors", r.errors());
+      report.put("dropped", r.dropped());
+      report.put("errorRatePercent", round(100.0 * (r.errors() + r.dropped()) / Math.max(1, r.ok() + r.errors() + r.dropped())));
+      report.put("p50Ms", millis(h.getValueAtPercentile(50)));
+      report.put("p99Ms", millis(h.getValueAtPercentile(99)));
+      report.put("p999Ms", millis(h.getValueAtPercentile(99.9)));
+      report.put("maxMs", millis(h.getMaxValue()));
+      report.put("cpuMicrosPerRequest", round(used.cpuNanos() / 1000.0 / done));
+      report.put("allocatedKBPerRequest", round(used.allocatedBytes() / 1024.0 / done));
+      report.put("handshakes", handshakes);
+      report.put("handshakesPerSecond", round(handshakes / r.seconds()));
+      report.put("cpuMicrosPerHandshake", handshakes==0 ? 0.0 : round(used.cpuNanos() / 1000.0 / handshakes));
+      return report;
+    }
+  }
+
+  private static List<String> gate(Options o, Map<String, Object> report){
+    List<String> failures = new ArrayList<>();
+    Duration p99 = o.optionalDuration("max-p99");
+    if (p99!=null && (double) report.get("p99Ms") > p99.toNanos() / 1e6) failures.add("p99 above " + p99);
+    Duration p999 = o.optionalDuration("max-p999");
+    if (p999!=null && (double) report.get("p999Ms") > p999.toNanos() / 1e6) failures.add("p99.9 above " + p999);
+    double maxErrors = o.number("max-error-rate", 100);
+    if ((double) report.get("errorRatePercent") > maxErrors) failures.add("error rate above " + maxErrors + "%");
+    double minThroughput = o.number("min-throughput", 0);
+    if ((double) report.get("throughput") < minThroughput) failures.add("throughput below " + minThroughput + "/s");
+    return failures;
+  }
+
+  private static void print(Map<String, Object> r){
+    System.out.printf("%n[%s %s] %.0f req/s offered, %.1f req/s done, ok=%d errors=%d dropped=%d%n",
+        r.get("provider"), r.get("method"), r.get("offeredRate"), r.get("throughput"), r.get("ok"), r.get("errors"), r.get("dropped"));
+    System.out.printf("  latency ms  p50=%.3f  p99=%.3f  p99.9=%.3f  max=%.3f%n",
+        r.get("p50Ms"), r.get("p99Ms"), r.get("p999Ms"), r.get("maxMs"));
+    System.out.printf("  per request cpu=%.1fus  alloc=%.1fKB%n", r.get("cpuMicrosPerRequest"), r.get("allocatedKBPerRequest"));
+    System.out.printf("  tls handshakes=%d  %.1f/s  cpu=%.1fus each%n",
+        r.get("handshakes"), r.get("handshakesPerSecond"), r.get("cpuMicrosPerHandshake"));
+    @SuppressWarnings("unchecked")
+    List<String> failures = (List<String>) r.get("gateFailures");
+    System.out.println(failures.isEmpty() ? "  gate: passed" : "  gate: FAILED " + failures);
+  }
+
+  private static double millis(long nanos){ return round(nanos / 1e6); }
+
+  private static double round(double v){ return Math.round(v * 1000) / 1000.0; }
+}
@@ -0,0 +1,112 @@
+package com.example.proxy.bench.load;
+
+import io.netty.handler.codec.http.HttpMethod;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: requests are started on a fixed schedule ({@code rate} per second) whether or not
+ * earlier ones completed, and latency is measured from the scheduled start, so a stalled proxy shows up
+ * as latency instead of as a lower request rate (no coordinated omission). Requests beyond
+ * {@code maxInFlight} are not sent and are reported as dropped.
+ */
+final class OpenLoadGenerator implements AutoCloseable {
+  private final LoopResources loops;
+  private final ConnectionProvider pool;
+  private final HttpClient client;
+  private final String method;
+  private final String path;
+  private final byte[] body;
+  private final Map<String, String> headers;
+  private final int maxInFlight;
+
+  private final Recorder latencies = new Recorder(TimeUnit.MINUTES.toNanos(1), 3);
+  private final AtomicLong inFlight = new AtomicLong();
+  private final AtomicLong ok = new AtomicLong();
+  private final AtomicLong errors = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+
+  OpenLoadGenerator(int proxyPort, String method, String path, byte[] body, Map<String, String> headers,
+                    int connections, int maxInFlight){
+    this.loops = LoopResources.create("loadgen", Math.max(2, Runtime.getRuntime().availableProcessors() / 4), true);
+    this.pool = ConnectionProvider.builder("loadgen")
+        .maxConnections(connections)
+        .pendingAcquireMaxCount(-1)
+        .build();
+    this.client = HttpClient.create(pool).runOn(loops).baseUrl("http://127.0.0.1:" + proxyPort);
+    this.method = method;
+    this.path = path;
+    this.body = body;
+    this.headers = headers;
+    this.maxInFlight = maxInFlight;
+  }
+
+  /** Outcome of one schedule; throughput is completed requests over the schedule length. */
+  record Result(Histogram latency, long ok, long errors, long dropped, double seconds) {
+    double throughput(){ return ok / seconds; }
+  }
+
+  /** Runs the schedule for {@code duration}; blocks until it is done and in-flight requests drained. */
+  Result run(double rate, Duration duration, Duration drainTimeout){
+    latencies.reset();
+    ok.set(0);
+    errors.set(0);
+    dropped.set(0);
+    long interval = (long) (1_000_000_000L / rate);
+    long start = System.nanoTime();
+    long end = start + duration.toNanos();
+    for (long i=0; ; i++){
+      long intended = start + i * interval;
+      if (intended >= end) break;
+      long wait;
+      while ((wait = intended - System.nanoTime()) > 0) LockSupport.parkNanos(wait);
+      if (inFlight.get() >= maxInFlight){
+        dropped.incrementAndGet();
+        continue;
+      }
+      send(intended);
+    }
+    long drainUntil = System.nanoTime() + drainTimeout.toNanos();
+    while (inFlight.get() > 0 && System.nanoTime() < drainUntil) LockSupport.parkNanos(1_000_000);
+    return new Result(latencies.getIntervalHistogram(), ok.get(), errors.get(), dropped.get(),
+        duration.toNanos() / 1e9);
+  }
+
+  private void send(long intended){
+    inFlight.incrementAndGet();
+    client.headers(h -> headers.forEach(h::set))
+        .request(HttpMethod.valueOf(method))
+        .uri(path)
+        .send((req, out) -> body==null ? out : out.sendByteArray(Mono.just(body)))
+        .responseSingle((res, content) -> content.asByteArray().defaultIfEmpty(new byte[0]).map(b -> res.status().code()))
+        .subscribe(status -> {
+          long nanos = System.nanoTime() - intended;
+          inFlight.decrementAndGet();
+          if (status < 400){
+            ok.incrementAndGet();
+            latencies.recordValue(Math.min(nanos, TimeUnit.MINUTES.toNanos(1)));
+          } else {
+            errors.incrementAndGet();
+          }
+        }, e -> {
+          inFlight.decrementAndGet();
+          errors.incrementAndGet();
+        });
+  }
+
+  @Override
+  public void close(){
+    pool.disposeLater().block(Duration.ofSeconds(5));
+    loops.dispose();
+  }
+}
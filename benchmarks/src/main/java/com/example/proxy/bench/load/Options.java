@@ -0,0 +1,65 @@
+package com.example.proxy.bench.load;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/** {@code --key=value} command-line options with typed accessors. */
+final class Options {
+  private final Map<String, String> values = new HashMap<>();
+
+  Options(String[] args){
+    for (String a: args){
+      if (!a.startsWith("--")) throw new IllegalArgumentException("Expected --key=value, got " + a);
+      int eq = a.indexOf('=');
+      if (eq < 0) values.put(a.substring(2), "true");
+      else values.put(a.substring(2, eq), a.substring(eq + 1));
+    }
+  }
+
+  String string(String key, String def){ return values.getOrDefault(key, def); }
+
+  boolean flag(String key){ return Boolean.parseBoolean(values.getOrDefault(key, "false")); }
+
+  int integer(String key, int def){
+    String v = values.get(key);
+    return v==null ? def : Integer.parseInt(v);
+  }
+
+  double number(String key, double def){
+    String v = values.get(key);
+    return v==null ? def : Double.parseDouble(v);
+  }
+
+  Duration duration(String key, Duration def){
+    String v = values.get(key);
+    return v==null ? def : duration(v);
+  }
+
+  /** Null when the option is absent (used for optional gates). */
+  Duration optionalDuration(String key){
+    String v = values.get(key);
+    return v==null ? null : duration(v);
+  }
+
+  DataSize size(String key, DataSize def){
+    String v = values.get(key);
+    return v==null ? def : DataSize.parse(v);
+  }
+
+  /** Options with a dot in their name, handed to the proxy as Spring properties. */
+  Map<String, String> forwarded(){
+    Map<String, String> m = new HashMap<>();
+    values.forEach((k, v) -> {
+      if (k.indexOf('.') >= 0) m.put(k, v);
+    });
+    return m;
+  }
+
+  static Duration duration(String v){
+    return DurationStyle.detectAndParse(v);
+  }
+}
@@ -0,0 +1,50 @@
+package com.example.proxy.bench.load;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * CPU time and allocated bytes of the threads selected by name, from the JVM's per-thread counters
+ * ({@code com.sun.management.ThreadMXBean}). Threads that exit between two snapshots are not counted.
+ */
+final class ThreadUsage {
+  private static final com.sun.management.ThreadMXBean THREADS =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  static {
+    if (THREADS.isThreadCpuTimeSupported()) THREADS.setThreadCpuTimeEnabled(true);
+    if (THREADS.isThreadAllocatedMemorySupported()) THREADS.setThreadAllocatedMemoryEnabled(true);
+  }
+
+  record Counters(long cpuNanos, long allocatedBytes) {}
+
+  private final Map<Long, Counters> byThread;
+
+  private ThreadUsage(Map<Long, Counters> byThread){ this.byThread = byThread; }
+
+  static ThreadUsage snapshot(Predicate<String> include){
+    long[] ids = THREADS.getAllThreadIds();
+    ThreadInfo[] infos = THREADS.getThreadInfo(ids);
+    long[] alloc = THREADS.getThreadAllocatedBytes(ids);
+    Map<Long, Counters> m = new HashMap<>();
+    for (int i=0; i<ids.length; i++){
+      if (infos[i]==null || !include.test(infos[i].getThreadName())) continue;
+      m.put(ids[i], new Counters(Math.max(0, THREADS.getThreadCpuTime(ids[i])), Math.max(0, alloc[i])));
+    }
+    return new ThreadUsage(m);
+  }
+
+  /** Usage accrued between {@code before} and this snapshot; threads started in between count from zero. */
+  Counters since(ThreadUsage before){
+    long cpu = 0, bytes = 0;
+    for (Map.Entry<Long, Counters> e: byThread.entrySet()){
+      Counters b = before.byThread.getOrDefault(e.getKey(), new Counters(0, 0));
+      cpu += e.getValue().cpuNanos() - b.cpuNanos();
+      bytes += e.getValue().allocatedBytes() - b.allocatedBytes();
+    }
+    return new Counters(cpu, bytes);
+  }
+}
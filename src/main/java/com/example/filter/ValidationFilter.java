@@ -1,91 +1,148 @@
-package com.example.genericapi.web;
-
-import com.example.genericapi.config.AppProperties;
-import com.example.genericapi.model.ApiEvent;
-import com.example.genericapi.openap i.OpenApiSpecRegistry;
-import com.example.genericapi.openapi.OpenApiValidationService;
-import com.example.genericapi.repo.ApiEventRepository;
-import com.example.genericapi.kafka.KafkaPublisher;
-import org.openapi4j.core.validation.ValidationResults;
-import org.openapi4j.parser.model.v3.OpenApi3;
+package com.example.filter;
+
+import com.example.proxy.error.ObErrorResponse;
+import com.example.proxy.events.ApiEvent;
+import com.example.proxy.events.ApiEventPipeline;
+import com.example.proxy.validation.ValidationResult;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.stereotype.Component;
-
-import jakarta.servlet.*;
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
-import java.io.IOException;
-import java.util.Collections;
-import java.util.Map;
-import java.util.stream.Collectors;
-
-@Component
-public class ValidationFilter implements Filter {
-    private final AppProperties props;
-    private final OpenApiSpecRegistry specRegistry;
-    private final OpenApiValidationService validationService;
-    private final ApiEventRepository repo;
-    private final KafkaPublisher publisher;
-
-    public ValidationFilter(AppProperties props,
-                            OpenApiSpecRegistry specRegistry,
-                            OpenApiValidationService validationService,
-                            ApiEventRepository repo,
-                            KafkaPublisher publisher) {
-        this.props = props;
-        this.specRegistry = specRegistry;
-        this.validationService = validationService;
-        this.repo = repo;
-        this.publisher = publisher;
-    }
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.reactive.result.view.ViewResolver;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-    @Override
-    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException {
-        HttpServletRequest httpReq = (HttpServletRequest) request;
-        HttpServletResponse httpResp = (HttpServletResponse) response;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
-        // Wrap request to read body multiple times
-        CachedBodyHttpServletRequest cachedReq = new CachedBodyHttpServletRequest(httpReq);
-        String body = cachedReq.getBodyAsString();
-        String path = cachedReq.getRequestURI();
-        String method = cachedReq.getMethod();
+/**
+ * Records an {@link ApiEvent} for every proxied call and hands it to the {@link ApiEventPipeline}, which
+ * persists and publishes it in batches off the request thread. Validation itself is done by the proxy
+ * handler; a call it answered with 400 is recorded as invalid. Registered by
+ * {@link com.example.proxy.events.EventPipelineConfig} when {@code proxy.events.enabled}.
+ */
+public class ValidationFilter implements WebFilter {
+    private static final String PROXY_PREFIX = "/proxy/";
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private static final ServerResponse.Context CONTEXT = new ServerResponse.Context() {
+        private final HandlerStrategies strategies = HandlerStrategies.withDefaults();
+
+        @Override
+        public List<HttpMessageWriter<?>> messageWriters() {
+            return strategies.messageWriters();
+        }
+
+        @Override
+        public List<ViewResolver> viewResolvers() {
+            return strategies.viewResolvers();
+        }
+    };
+
+    private final ApiEventPipeline events;
+    private final String topic;
+
+    public ValidationFilter(ApiEventPipeline events, String topic) {
+        this.events = events;
+        this.topic = topic;
+    }
 
-        // load spec — for simplicity use first spec defined in config named "default" if present
-        String specLocation = props.getOpenapiSpecs().getOrDefault("default", "classpath:openapi/api.yaml");
-        OpenApi3 openApi = specRegistry.loadSpec("default", specLocation);
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!request.getPath().value().startsWith(PROXY_PREFIX)) {
+            return chain.filter(exchange);
+        }
+        if (!events.hasCapacity()) {
+            // event queue full: refuse rather than forward a call we have no audit record for
+            ResponseEntity<String> e = ObErrorResponse.of(HttpStatus.SERVICE_UNAVAILABLE, request,
+                    ValidationResult.SERVICE_UNAVAILABLE, "Event pipeline saturated, retry later", null);
+            return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .headers(h -> h.addAll(e.getHeaders()))
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .bodyValue(e.getBody())
+                    .flatMap(r -> r.writeTo(exchange, CONTEXT));
+        }
 
-        Map<String, String> headers = Collections.list(cachedReq.getHeaderNames())
-                .stream().collect(Collectors.toMap(h -> h, cachedReq::getHeader));
+        // keep a copy of the request body (up to MAX_BODY_BYTES) as the handler reads it; decoded once at the end
+        BodyCopy body = new BodyCopy();
+        ServerHttpRequest recording = new ServerHttpRequestDecorator(request) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return super.getBody().doOnNext(body::append);
+            }
+        };
 
-        // Validate request
-        ValidationResults results = validationService.validate(openApi, path, method, headers, Collections.emptyMap(), Collections.emptyMap(), body);
-        boolean isValid = !results.hasErrors();
+        return chain.filter(exchange.mutate().request(recording).build())
+                .doFinally(s -> events.submit(event(request, body.text(), exchange.getResponse().getStatusCode())));
+    }
 
-        // Persist event
+    private ApiEvent event(ServerHttpRequest request, String body, HttpStatusCode status) {
         ApiEvent ev = new ApiEvent();
-        ev.setPath(path);
-        ev.setMethod(method);
-        ev.setHeaders(headers);
+        ev.setPath(request.getPath().value());
+        ev.setMethod(request.getMethod().name());
+        ev.setHeaders(request.getHeaders().toSingleValueMap());
         ev.setBody(body);
+        boolean isValid = status == null || status.value() != HttpStatus.BAD_REQUEST.value();
         ev.setValid(isValid);
-        ev.setValidationErrors(results.toString());
-        repo.save(ev);
-
         if (!isValid) {
-            httpResp.setStatus(HttpStatus.BAD_REQUEST.value());
-            httpResp.getWriter().write("Validation failed:\n" + results.toString());
-            return;
+            ev.setValidationErrors("Rejected with " + status.value());
+        }
+        if (isValid && topic != null && !topic.isBlank()) {
+            ev.setTopic(topic); // published with the event id as key
         }
+        return ev;
+    }
+
+    /** Raw body bytes up to {@link #MAX_BODY_BYTES}; chunks arrive one at a time, so no locking. */
+    private static final class BodyCopy {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private boolean truncated;
 
-        // publish to kafka
-        String topic = props.getKafka().getTopic();
-        if (topic != null && !topic.isBlank()) {
-            // use event id as key (or any other key)
-            publisher.publish(topic, ev.getId(), body);
+        void append(DataBuffer buffer) {
+            try (DataBuffer.ByteBufferIterator it = buffer.readableByteBuffers()) {
+                while (it.hasNext()) {
+                    ByteBuffer b = it.next();
+                    int n = Math.min(b.remaining(), MAX_BODY_BYTES - bytes.size());
+                    if (n < b.remaining()) truncated = true;
+                    if (n <= 0) return;
+                    byte[] chunk = new byte[n];
+                    b.get(chunk);
+                    bytes.write(chunk, 0, n);
+                }
+            }
         }
 
-        // return 202 (accepted)
-        httpResp.setStatus(HttpStatus.ACCEPTED.value());
-        httpResp.getWriter().write("Accepted");
+        String text() {
+            byte[] b = bytes.toByteArray();
+            int len = truncated ? completeUtf8(b, b.length) : b.length;
+            return new String(b, 0, len, StandardCharsets.UTF_8);
+        }
+
+        /** {@code len} shortened so a UTF-8 sequence cut off by the limit is left out. */
+        static int completeUtf8(byte[] b, int len) {
+            int i = len - 1;
+            int continuation = 0;
+            while (i >= 0 && continuation < 3 && (b[i] & 0xC0) == 0x80) {
+                i--;
+                continuation++;
+            }
+            if (i < 0) return len;
+            int lead = b[i] & 0xFF;
+            int needed = lead >= 0xF0 ? 3 : lead >= 0xE0 ? 2 : lead >= 0xC0 ? 1 : 0;
+            return needed > continuation ? i : len;
+        }
     }
 }
@@ -0,0 +1,34 @@
+package com.example.proxy.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response headers that belong to one exchange rather than to the representation. They are not replayed
+ * to another caller from the cache or a shared upstream call; the FAPI interaction id is re-stamped
+ * from the caller's own request instead.
+ */
+final class ExchangeHeaders {
+  private ExchangeHeaders(){}
+
+  static final String INTERACTION_ID = "x-fapi-interaction-id";
+
+  private static final List<String> PER_EXCHANGE = List.of(INTERACTION_ID, HttpHeaders.DATE, HttpHeaders.SET_COOKIE, HttpHeaders.AGE);
+
+  /** Copy of {@code in} without per-exchange headers. */
+  static HttpHeaders shareable(HttpHeaders in){
+    HttpHeaders h = new HttpHeaders();
+    h.addAll(in);
+    for (String name: PER_EXCHANGE) h.remove(name);
+    return h;
+  }
+
+  /** Sets the interaction id this caller must get back: the one it sent, or a new one if it sent none. */
+  static void stamp(HttpHeaders out, ServerHttpRequest request){
+    String id = request.getHeaders().getFirst(INTERACTION_ID);
+    out.set(INTERACTION_ID, id!=null ? id : UUID.randomUUID().toString());
+  }
+}
@@ -0,0 +1,60 @@
+package com.example.proxy.cache;
+
+import com.example.proxy.config.RouteDefinition;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for identical concurrent GETs on routes with {@code coalesce: true}: the first
+ * caller's upstream {@code Mono} is shared with every caller that arrives while it is in flight,
+ * and forgotten as soon as it terminates (this is not a cache). Each waiter gets its own
+ * {@link ResponseEntity}; a joiner's carries its own {@code x-fapi-interaction-id} and none of the first
+ * caller's other per-exchange headers ({@link ExchangeHeaders}). Joins are counted as
+ * {@code proxy.request.coalesced{route}}.
+ * <p>
+ * Callers share a call when the key from {@link RequestKey#forCoalescing} matches: same path and query,
+ * identity headers and Accept, Accept-Language and Accept-Encoding. Any other forwarded header (interaction
+ * id, customer IP, auth date, tracing) is taken from the first caller; routes whose upstream answers
+ * differently on such headers must not set {@code coalesce}.
+ */
+@Component
+public class RequestCoalescer {
+
+  private final ConcurrentHashMap<String, Mono<ResponseEntity<String>>> inflight = new ConcurrentHashMap<>();
+  private final MeterRegistry meters;
+
+  public RequestCoalescer(MeterRegistry meters){
+    this.meters = meters;
+  }
+
+  public Mono<ResponseEntity<String>> execute(RouteDefinition route, String key, ServerHttpRequest request,
+                                              Supplier<Mono<ResponseEntity<String>>> call){
+    return Mono.defer(() -> {
+      @SuppressWarnings("unchecked")
+      Mono<ResponseEntity<String>>[] created = new Mono[1];
+      Mono<ResponseEntity<String>> shared = inflight.computeIfAbsent(key, k -> {
+        Mono<ResponseEntity<String>> m = call.get()
+            .doFinally(sig -> inflight.remove(k, created[0]))
+            .cache();
+        created[0] = m;
+        return m;
+      });
+      if (shared==created[0]){
+        return shared.map(r -> new ResponseEntity<>(r.getBody(), r.getHeaders(), r.getStatusCode()));
+      }
+      meters.counter("proxy.request.coalesced", "route", route.getName()).increment();
+      return shared.map(r -> {
+        HttpHeaders h = ExchangeHeaders.shareable(r.getHeaders());
+        ExchangeHeaders.stamp(h, request);
+        return new ResponseEntity<>(r.getBody(), h, r.getStatusCode());
+      });
+    });
+  }
+}
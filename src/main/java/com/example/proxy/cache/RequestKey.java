@@ -0,0 +1,53 @@
+package com.example.proxy.cache;
+
+import com.example.proxy.config.RouteDefinition;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Identity of a GET for caching and coalescing: route, path, query and a digest of the caller's
+ * identity headers (so two consents never share a response). Coalescing also digests the
+ * {@link #NEGOTIATION_HEADERS}, since the response is not checked for Vary before it is shared.
+ */
+public final class RequestKey {
+  private RequestKey(){}
+
+  public static final List<String> DEFAULT_IDENTITY_HEADERS = List.of("authorization", "x-fapi-consent-id");
+
+  /** Request headers that select a representation. */
+  public static final List<String> NEGOTIATION_HEADERS = List.of("accept", "accept-language", "accept-encoding");
+
+  private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+  private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+    try{
+      return MessageDigest.getInstance("SHA-256");
+    }catch(NoSuchAlgorithmException e){
+      throw new IllegalStateException(e);
+    }
+  });
+
+  public static String of(RouteDefinition route, ServerHttpRequest request, List<String> identityHeaders){
+    String query = request.getURI().getRawQuery();
+    return route.getName() + ' ' + request.getPath().value() + (query==null ? "" : "?" + query) + ' '
+        + digest(request, identityHeaders);
+  }
+
+  /** Key for {@link RequestCoalescer}: as {@link #of}, plus the {@link #NEGOTIATION_HEADERS}. */
+  public static String forCoalescing(RouteDefinition route, ServerHttpRequest request, List<String> identityHeaders){
+    return of(route, request, identityHeaders) + ' ' + digest(request, NEGOTIATION_HEADERS);
+  }
+
+  private static String digest(ServerHttpRequest request, List<String> headers){
+    StringBuilder id = new StringBuilder();
+    for (String h: headers){
+      String v = request.getHeaders().getFirst(h);
+      id.append(v==null ? "" : v).append('\n');
+    }
+    return B64.encodeToString(SHA256.get().digest(id.toString().getBytes(StandardCharsets.UTF_8)));
+  }
+}
@@ -0,0 +1,195 @@
+package com.example.proxy.cache;
+
+import com.example.proxy.config.ResponseCacheProperties;
+import com.example.proxy.config.RouteDefinition;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared cache of upstream GET responses for routes with {@code responseCache}. Caffeine's
+ * W-TinyLFU policy decides admission and eviction within a weight budget of
+ * {@code proxy.response-cache.max-memory} (approximate bytes of body and headers).
+ * Hits and misses are counted per route as {@code proxy.response.cache{route,result}}, with
+ * {@code proxy.response.cache.hit.ratio{route}} derived from them.
+ * <p>
+ * Per-exchange headers ({@link ExchangeHeaders}) are not stored; a hit carries the caller's own
+ * {@code x-fapi-interaction-id} and an {@code Age}. A response with {@code Vary} is stored under a variant key
+ * built from the named request headers, next to a marker that tells lookups which headers those are;
+ * {@code Vary: *} is not cached.
+ */
+@Component
+public class ResponseCache {
+
+  private final Cache<String, Entry> cache;
+  private final MeterRegistry meters;
+  private final ConcurrentHashMap<String, RouteStats> stats = new ConcurrentHashMap<>();
+
+  public ResponseCache(MeterRegistry meters,
+                       @Value("${proxy.response-cache.max-memory:64MB}") DataSize maxMemory){
+    this.meters = meters;
+    this.cache = Caffeine.newBuilder()
+        .maximumWeight(maxMemory.toBytes())
+        .weigher((String k, Entry v) -> v.weight() + k.length() * 2)
+        .expireAfter(new Expiry<String, Entry>() {
+          @Override public long expireAfterCreate(String k, Entry v, long now){ return v.ttlNanos(); }
+          @Override public long expireAfterUpdate(String k, Entry v, long now, long current){ return v.ttlNanos(); }
+          @Override public long expireAfterRead(String k, Entry v, long now, long current){ return current; }
+        })
+        .build();
+  }
+
+  public static boolean applies(RouteDefinition route, ServerHttpRequest request){
+    ResponseCacheProperties rc = route.getResponseCache();
+    if (rc==null || !rc.isEnabled() || !"GET".equals(request.getMethod().name())) return false;
+    List<String> cc = request.getHeaders().get(HttpHeaders.CACHE_CONTROL);
+    return cc==null || cc.stream().noneMatch(v -> {
+      String l = v.toLowerCase(Locale.ROOT);
+      return l.contains("no-cache") || l.contains("no-store");
+    });
+  }
+
+  public static String key(RouteDefinition route, ServerHttpRequest request){
+    return RequestKey.of(route, request, route.getResponseCache().getIdentityHeaders());
+  }
+
+  /** Cached response, a 304 when the client's If-None-Match matches it, or null on a miss. */
+  public ResponseEntity<String> lookup(RouteDefinition route, String key, ServerHttpRequest request){
+    Entry e = cache.getIfPresent(key);
+    if (e instanceof VaryMarker v) e = cache.getIfPresent(variantKey(key, v.headers(), request));
+    RouteStats s = stats(route);
+    if (!(e instanceof CachedResponse hit)){
+      s.misses.increment();
+      return null;
+    }
+    s.hits.increment();
+    String etag = hit.headers().getETag();
+    if (etag!=null && request.getHeaders().getIfNoneMatch().contains(etag)){
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag)
+          .headers(h -> ExchangeHeaders.stamp(h, request)).build();
+    }
+    return hit.toResponseEntity(request);
+  }
+
+  public void store(RouteDefinition route, String key, ServerHttpRequest request, ResponseEntity<String> resp){
+    if (resp.getStatusCode().value()!=200) return;
+    long ttl = route.getResponseCache().getTtl().toNanos();
+    String cc = resp.getHeaders().getCacheControl();
+    if (cc!=null){
+      String l = cc.toLowerCase(Locale.ROOT);
+      if (l.contains("no-store") || l.contains("no-cache")) return;
+      long maxAge = maxAgeSeconds(l);
+      if (maxAge==0) return;
+      if (maxAge > 0) ttl = Math.min(ttl, maxAge * 1_000_000_000L);
+    }
+    List<String> vary = varyHeaders(resp.getHeaders());
+    if (vary==null) return;
+    CachedResponse entry = CachedResponse.of(resp, ttl);
+    if (vary.isEmpty()){
+      cache.put(key, entry);
+    } else {
+      cache.put(key, new VaryMarker(vary, ttl));
+      cache.put(variantKey(key, vary, request), entry);
+    }
+  }
+
+  /** Lower-cased header names from Vary, empty without one, null for {@code Vary: *}. */
+  private static List<String> varyHeaders(HttpHeaders headers){
+    List<String> vary = headers.getVary();
+    if (vary.isEmpty()) return List.of();
+    List<String> names = new ArrayList<>(vary.size());
+    for (String v: vary){
+      if ("*".equals(v)) return null;
+      names.add(v.toLowerCase(Locale.ROOT));
+    }
+    names.sort(null);
+    return List.copyOf(names);
+  }
+
+  private static String variantKey(String key, List<String> vary, ServerHttpRequest request){
+    StringBuilder sb = new StringBuilder(key);
+    for (String h: vary){
+      sb.append('\n').append(h).append('=').append(String.join(",", request.getHeaders().getOrEmpty(h)));
+    }
+    return sb.toString();
+  }
+
+  private static long maxAgeSeconds(String cacheControl){
+    int i = cacheControl.indexOf("max-age=");
+    if (i < 0) return -1;
+    int j = i + 8, end = j;
+    while (end < cacheControl.length() && Character.isDigit(cacheControl.charAt(end))) end++;
+    return end==j ? -1 : Long.parseLong(cacheControl.substring(j, end));
+  }
+
+  private RouteStats stats(RouteDefinition route){
+    RouteStats s = stats.get(route.getName());
+    return s!=null ? s : stats.computeIfAbsent(route.getName(), n -> new RouteStats(n, meters));
+  }
+
+  sealed interface Entry permits CachedResponse, VaryMarker {
+    long ttlNanos();
+    int weight();
+  }
+
+  /** Stored under the base key of a response with Vary; its variants live under {@link #variantKey}. */
+  record VaryMarker(List<String> headers, long ttlNanos) implements Entry {
+    public int weight(){ return 64 + headers.size() * 32; }
+  }
+
+  record CachedResponse(int status, HttpHeaders headers, String body, long ttlNanos, long storedNanos) implements Entry {
+    static CachedResponse of(ResponseEntity<String> resp, long ttlNanos){
+      HttpHeaders h = ExchangeHeaders.shareable(resp.getHeaders());
+      return new CachedResponse(resp.getStatusCode().value(), HttpHeaders.readOnlyHttpHeaders(h), resp.getBody(),
+          ttlNanos, System.nanoTime());
+    }
+
+    public int weight(){
+      int w = body==null ? 0 : body.length() * 2;
+      for (var e: headers.entrySet()){
+        w += e.getKey().length() * 2;
+        for (String v: e.getValue()) w += v.length() * 2;
+      }
+      return w + 64;
+    }
+
+    ResponseEntity<String> toResponseEntity(ServerHttpRequest request){
+      HttpHeaders h = new HttpHeaders();
+      h.addAll(headers);
+      ExchangeHeaders.stamp(h, request);
+      h.set(HttpHeaders.AGE, Long.toString((System.nanoTime() - storedNanos) / 1_000_000_000L));
+      return ResponseEntity.status(status).headers(h).body(body);
+    }
+  }
+
+  private static final class RouteStats {
+    final Counter hits;
+    final Counter misses;
+
+    RouteStats(String route, MeterRegistry meters){
+      hits = meters.counter("proxy.response.cache", "route", route, "result", "hit");
+      misses = meters.counter("proxy.response.cache", "route", route, "result", "miss");
+      Gauge.builder("proxy.response.cache.hit.ratio", this, RouteStats::hitRatio).tag("route", route).register(meters);
+    }
+
+    double hitRatio(){
+      double h = hits.count(), total = h + misses.count();
+      return total==0 ? 0 : h / total;
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.example.proxy.client;
+
+import com.example.proxy.config.RouteDefinition;
+import com.example.proxy.metrics.PhaseTimers;
+import com.example.proxy.registry.RouteRegistry;
+import com.example.proxy.registry.RouteTable;
+import com.example.proxy.registry.RouteTableRefreshedEvent;
+import com.example.proxy.security.MtlsIdentityReloadedEvent;
+import com.example.proxy.security.jws.DetachedJwsSigner;
+import com.example.proxy.security.jws.JwsSignatureCache;
+import com.example.proxy.security.jws.OutboundSigningFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Upstream clients built once per route on the route's connection pool: a plain client and, when the route signs requests,
+ * a client carrying the {@link OutboundSigningFilter}. Nothing is constructed on the request path; a refreshed
+ * route table replaces the whole set.
+ */
+@Component
+public class RouteClients {
+
+  private final UpstreamClientFactory upstreams;
+  private final DetachedJwsSigner signer;
+  private final JwsSignatureCache signatureCache;
+  private final PhaseTimers phases;
+  private final RouteRegistry routes;
+  private volatile ConcurrentHashMap<String, Clients> byRoute;
+
+  public RouteClients(UpstreamClientFactory upstreams, ObjectProvider<DetachedJwsSigner> signer,
+                      ObjectProvider<JwsSignatureCache> signatureCache, PhaseTimers phases, RouteRegistry routes){
+    this.upstreams = upstreams;
+    this.signer = signer.getIfAvailable();
+    this.signatureCache = signatureCache.getIfAvailable();
+    this.phases = phases;
+    this.routes = routes;
+    this.byRoute = buildAll(routes.current());
+  }
+
+  /** Connections made with rotated key material are retired along with their pools. */
+  @EventListener
+  public void onIdentityReloaded(MtlsIdentityReloadedEvent event){
+    upstreams.retire(event.identity());
+    byRoute = buildAll(routes.current());
+  }
+
+  @EventListener
+  public void onRoutesRefreshed(RouteTableRefreshedEvent event){
+    byRoute = buildAll(event.table());
+  }
+
+  /** True when non-GET calls on this route are signed. */
+  public boolean signs(RouteDefinition route, String method){
+    return signer!=null && route.isSignRequests() && !"GET".equals(method) && !"HEAD".equals(method);
+  }
+
+  public WebClient select(RouteDefinition route, String method){
+    Clients c = byRoute.computeIfAbsent(route.getName(), n -> build(route));
+    return signs(route, method) ? c.signing : c.plain;
+  }
+
+  private ConcurrentHashMap<String, Clients> buildAll(RouteTable table){
+    ConcurrentHashMap<String, Clients> m = new ConcurrentHashMap<>();
+    for (RouteDefinition r: table.routes()){
+      m.put(r.getName(), build(r));
+    }
+    return m;
+  }
+
+  private Clients build(RouteDefinition route){
+    WebClient plain = upstreams.forRoute(route);
+    WebClient signing = signer==null || !route.isSignRequests() ? plain
+        : plain.mutate().filter(OutboundSigningFilter.withDetachedJwsHeader(signer, signatureCache, phases)).build();
+    return new Clients(plain, signing);
+  }
+
+  private record Clients(WebClient plain, WebClient signing) {}
+}
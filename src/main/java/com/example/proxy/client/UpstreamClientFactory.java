@@ -0,0 +1,120 @@
+package com.example.proxy.client;
+
+import com.example.proxy.config.ConnectionPoolProperties;
+import com.example.proxy.config.RouteDefinition;
+import io.netty.channel.ChannelOption;
+import com.example.proxy.security.MtlsIdentity;
+import com.example.proxy.security.MtlsIdentityRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link ConnectionProvider} and mTLS {@link WebClient} per upstream pool and client identity, so a slow
+ * ASPSP can only exhaust its own connections and identities never share a connection. Pools publish Reactor Netty's active/idle/pending gauges to Micrometer
+ * under {@code reactor.netty.connection.provider.*}, tagged with the pool name.
+ * The first route to use a pool fixes its settings; routes sharing it with different {@code pool} settings are
+ * logged at startup, since theirs are not applied. After key rotation {@link #retire} replaces an identity's pools.
+ */
+@Component
+public class UpstreamClientFactory {
+
+  private static final Logger log = LoggerFactory.getLogger(UpstreamClientFactory.class);
+  private static final ConnectionPoolProperties DEFAULTS = new ConnectionPoolProperties();
+
+  private final MtlsIdentityRegistry identities;
+  private final ConcurrentHashMap<String, Pool> providers = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, WebClient> clients = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, PoolOwner> owners = new ConcurrentHashMap<>();
+
+  public UpstreamClientFactory(MtlsIdentityRegistry identities){
+    this.identities = identities;
+  }
+
+  public WebClient forRoute(RouteDefinition route){
+    ConnectionPoolProperties pool = route.getPool()!=null ? route.getPool() : DEFAULTS;
+    MtlsIdentity identity = identities.get(route.getClientIdentity());
+    String poolName = poolName(route, pool);
+    checkSettings(poolName, route, pool);
+    String name = poolName + "#" + identity.name();
+    return clients.computeIfAbsent(name, n -> build(n, pool, identity));
+  }
+
+  /**
+   * Drops the clients and pools of {@code identity} so the next {@link #forRoute} starts fresh connections.
+   * The old pools are disposed once callers still waiting on them have acquired or timed out.
+   */
+  public void retire(String identity){
+    String suffix = "#" + identity;
+    for (String name: providers.keySet()){
+      if (!name.endsWith(suffix)) continue;
+      clients.remove(name);
+      Pool old = providers.remove(name);
+      if (old!=null){
+        Mono.delay(old.drainTimeout()).then(old.provider().disposeLater()).subscribe();
+      }
+    }
+  }
+
+  private void checkSettings(String poolName, RouteDefinition route, ConnectionPoolProperties pool){
+    PoolSettings wanted = PoolSettings.of(pool);
+    PoolOwner owner = owners.computeIfAbsent(poolName, n -> new PoolOwner(route.getName(), wanted));
+    if (!owner.settings().equals(wanted)){
+      log.warn("Route {} shares pool {} with route {} but asks for different settings; keeping {} and ignoring {}."
+          + " Set pool.name on the route to give it its own pool", route.getName(), poolName, owner.route(), owner.settings(), wanted);
+    }
+  }
+
+  static String poolName(RouteDefinition route, ConnectionPoolProperties pool){
+    if (pool.getName()!=null && !pool.getName().isBlank()) return pool.getName();
+    URI uri = URI.create(route.getTargetUrl());
+    int port = uri.getPort()!=-1 ? uri.getPort() : ("http".equalsIgnoreCase(uri.getScheme()) ? 80 : 443);
+    return uri.getHost() + ":" + port;
+  }
+
+  private WebClient build(String name, ConnectionPoolProperties pool, MtlsIdentity identity){
+    ConnectionProvider provider = providers.computeIfAbsent(name, n -> new Pool(ConnectionProvider.builder(n)
+        .maxConnections(pool.getMaxConnections())
+        .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+        .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+        .maxIdleTime(pool.getMaxIdleTime())
+        .maxLifeTime(pool.getMaxLifeTime())
+        .evictInBackground(pool.getEvictInBackground())
+        .metrics(true)
+        .build(), pool.getPendingAcquireTimeout())).provider();
+    HttpClient httpClient = HttpClient.create(provider)
+        .option(ChannelOption.SO_KEEPALIVE, pool.isTcpKeepAlive())
+        .keepAlive(true)
+        .secure(spec -> spec.sslContext(identity.sslContext()));
+    return WebClient.builder()
+        .clientConnector(new ReactorClientHttpConnector(httpClient))
+        .build();
+  }
+
+  private record Pool(ConnectionProvider provider, Duration drainTimeout) {}
+
+  private record PoolOwner(String route, PoolSettings settings) {}
+
+  private record PoolSettings(int maxConnections, int pendingAcquireMaxCount, Duration pendingAcquireTimeout,
+                              Duration maxIdleTime, Duration maxLifeTime, Duration evictInBackground, boolean tcpKeepAlive) {
+    static PoolSettings of(ConnectionPoolProperties p){
+      return new PoolSettings(p.getMaxConnections(), p.getPendingAcquireMaxCount(), p.getPendingAcquireTimeout(),
+          p.getMaxIdleTime(), p.getMaxLifeTime(), p.getEvictInBackground(), p.isTcpKeepAlive());
+    }
+  }
+
+  @PreDestroy
+  public void shutdown(){
+    providers.values().forEach(p -> p.provider().dispose());
+  }
+}
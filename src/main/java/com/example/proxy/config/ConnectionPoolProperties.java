@@ -0,0 +1,35 @@
+package com.example.proxy.config;
+
+import java.time.Duration;
+
+/**
+ * Reactor Netty connection pool settings for one upstream. Routes with the same {@code name}
+ * (by default the target host and port) share a pool.
+ */
+public class ConnectionPoolProperties {
+  private String name;
+  private int maxConnections = 100;
+  private int pendingAcquireMaxCount = 200;
+  private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+  private Duration maxIdleTime = Duration.ofSeconds(30);
+  private Duration maxLifeTime = Duration.ofMinutes(5);
+  private Duration evictInBackground = Duration.ofSeconds(30);
+  private boolean tcpKeepAlive = true;
+
+  public String getName(){return name;}
+  public void setName(String n){this.name=n;}
+  public int getMaxConnections(){return maxConnections;}
+  public void setMaxConnections(int m){this.maxConnections=m;}
+  public int getPendingAcquireMaxCount(){return pendingAcquireMaxCount;}
+  public void setPendingAcquireMaxCount(int m){this.pendingAcquireMaxCount=m;}
+  public Duration getPendingAcquireTimeout(){return pendingAcquireTimeout;}
+  public void setPendingAcquireTimeout(Duration d){this.pendingAcquireTimeout=d;}
+  public Duration getMaxIdleTime(){return maxIdleTime;}
+  public void setMaxIdleTime(Duration d){this.maxIdleTime=d;}
+  public Duration getMaxLifeTime(){return maxLifeTime;}
+  public void setMaxLifeTime(Duration d){this.maxLifeTime=d;}
+  public Duration getEvictInBackground(){return evictInBackground;}
+  public void setEvictInBackground(Duration d){this.evictInBackground=d;}
+  public boolean isTcpKeepAlive(){return tcpKeepAlive;}
+  public void setTcpKeepAlive(boolean k){this.tcpKeepAlive=k;}
+}
@@ -0,0 +1,39 @@
+package com.example.proxy.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * {@code proxy.events.*}: write-behind of API audit events. A batch is flushed when {@code batchSize}
+ * events are queued or {@code maxDelay} after the previous flush, whichever comes first.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "proxy.events")
+public class EventPipelineProperties {
+  private boolean enabled;
+  private int capacity = 10_000; // queued events; beyond this new events are dropped
+  private int batchSize = 500;
+  private Duration maxDelay = Duration.ofMillis(200);
+  private int maxRetries = 3; // per batch, for the store and the publisher separately
+  private Duration retryBackoff = Duration.ofMillis(100);
+  private Duration inMemoryLatency = Duration.ZERO; // simulated round trip of the in-memory stand-ins
+  private String topic; // events of valid calls are published here; null = persist only
+
+  public boolean isEnabled(){return enabled;}
+  public void setEnabled(boolean e){this.enabled=e;}
+  public int getCapacity(){return capacity;}
+  public void setCapacity(int c){this.capacity=c;}
+  public int getBatchSize(){return batchSize;}
+  public void setBatchSize(int b){this.batchSize=b;}
+  public Duration getMaxDelay(){return maxDelay;}
+  public void setMaxDelay(Duration d){this.maxDelay=d;}
+  public int getMaxRetries(){return maxRetries;}
+  public void setMaxRetries(int r){this.maxRetries=r;}
+  public Duration getRetryBackoff(){return retryBackoff;}
+  public void setRetryBackoff(Duration b){this.retryBackoff=b;}
+  public Duration getInMemoryLatency(){return inMemoryLatency;}
+  public void setInMemoryLatency(Duration l){this.inMemoryLatency=l;}
+  public String getTopic(){return topic;}
+  public void setTopic(String t){this.topic=t;}
+}
@@ -0,0 +1,25 @@
+package com.example.proxy.config;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request header forwarding rules for a route. Names are case-insensitive.
+ * When {@code allow} is set only those headers are forwarded; {@code deny} is applied on top of
+ * the built-in hop-by-hop list; {@code rename} maps inbound to outbound names; {@code inject} adds fixed values.
+ */
+public class HeaderPolicyProperties {
+  private List<String> allow;
+  private List<String> deny;
+  private Map<String, String> rename;
+  private Map<String, String> inject;
+
+  public List<String> getAllow(){return allow;}
+  public void setAllow(List<String> a){this.allow=a;}
+  public List<String> getDeny(){return deny;}
+  public void setDeny(List<String> d){this.deny=d;}
+  public Map<String, String> getRename(){return rename;}
+  public void setRename(Map<String, String> r){this.rename=r;}
+  public Map<String, String> getInject(){return inject;}
+  public void setInject(Map<String, String> i){this.inject=i;}
+}
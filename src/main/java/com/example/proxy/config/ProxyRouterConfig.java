@@ -0,0 +1,19 @@
+package com.example.proxy.config;
+
+import com.example.proxy.controller.GenericProxyController;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.path;
+
+@Configuration
+public class ProxyRouterConfig {
+
+  @Bean
+  public RouterFunction<ServerResponse> proxyRoutes(GenericProxyController proxy) {
+    return RouterFunctions.route(path("/proxy/{serviceName}/**"), proxy::proxy);
+  }
+}
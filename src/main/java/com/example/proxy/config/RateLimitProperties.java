@@ -0,0 +1,21 @@
+package com.example.proxy.config;
+
+import java.util.List;
+
+/**
+ * Per-client admission limit for a route: a token bucket refilled at {@code permitsPerSecond}
+ * holding at most {@code burst} tokens. Clients are told apart by their mTLS certificate subject,
+ * else by the first present header of {@code identityHeaders}.
+ */
+public class RateLimitProperties {
+  private double permitsPerSecond = 50;
+  private int burst = 100;
+  private List<String> identityHeaders = List.of("x-fapi-client-id", "x-fapi-financial-id");
+
+  public double getPermitsPerSecond(){return permitsPerSecond;}
+  public void setPermitsPerSecond(double p){this.permitsPerSecond=p;}
+  public int getBurst(){return burst;}
+  public void setBurst(int b){this.burst=b;}
+  public List<String> getIdentityHeaders(){return identityHeaders;}
+  public void setIdentityHeaders(List<String> h){this.identityHeaders=h;}
+}
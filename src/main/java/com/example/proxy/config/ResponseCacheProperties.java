@@ -0,0 +1,24 @@
+package com.example.proxy.config;
+
+import com.example.proxy.cache.RequestKey;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Opt-in GET response cache for a route. Entries are keyed by path, query and the values of
+ * {@code identityHeaders}, so one consent never sees another's data. {@code ttl} caps the lifetime;
+ * an upstream {@code Cache-Control: max-age} may shorten it and {@code no-store} disables caching.
+ */
+public class ResponseCacheProperties {
+  private boolean enabled = true;
+  private Duration ttl = Duration.ofSeconds(5);
+  private List<String> identityHeaders = RequestKey.DEFAULT_IDENTITY_HEADERS;
+
+  public boolean isEnabled(){return enabled;}
+  public void setEnabled(boolean e){this.enabled=e;}
+  public Duration getTtl(){return ttl;}
+  public void setTtl(Duration t){this.ttl=t;}
+  public List<String> getIdentityHeaders(){return identityHeaders;}
+  public void setIdentityHeaders(List<String> h){this.identityHeaders=h;}
+}
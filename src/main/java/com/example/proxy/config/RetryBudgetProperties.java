@@ -0,0 +1,23 @@
+package com.example.proxy.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * {@code proxy.retry-budget.*}: retries and hedges across all routes may add at most {@code percent}
+ * of live upstream traffic, plus {@code minPerSecond} so quiet routes can still retry.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "proxy.retry-budget")
+public class RetryBudgetProperties {
+  private double percent = 10;
+  private double minPerSecond = 10;
+  private int maxBalance = 100; // tokens banked during quiet periods
+
+  public double getPercent(){return percent;}
+  public void setPercent(double p){this.percent=p;}
+  public double getMinPerSecond(){return minPerSecond;}
+  public void setMinPerSecond(double m){this.minPerSecond=m;}
+  public int getMaxBalance(){return maxBalance;}
+  public void setMaxBalance(int m){this.maxBalance=m;}
+}
@@ -0,0 +1,30 @@
+package com.example.proxy.config;
+
+import java.time.Duration;
+
+/**
+ * Per-route retry and hedging for GET calls. Retries cover connect failures and 5xx, hedging sends a
+ * second attempt once the first has been outstanding for the route's observed {@code hedgePercentile}
+ * latency (clamped to {@code hedgeMinDelay..hedgeMaxDelay}). Both draw from the global retry budget.
+ */
+public class RetryPolicyProperties {
+  private int maxRetries = 2;
+  private Duration backoff = Duration.ofMillis(25);
+  private boolean hedge;
+  private double hedgePercentile = 95;
+  private Duration hedgeMinDelay = Duration.ofMillis(10);
+  private Duration hedgeMaxDelay = Duration.ofSeconds(1); // also used until enough latencies were seen
+
+  public int getMaxRetries(){return maxRetries;}
+  public void setMaxRetries(int m){this.maxRetries=m;}
+  public Duration getBackoff(){return backoff;}
+  public void setBackoff(Duration b){this.backoff=b;}
+  public boolean isHedge(){return hedge;}
+  public void setHedge(boolean h){this.hedge=h;}
+  public double getHedgePercentile(){return hedgePercentile;}
+  public void setHedgePercentile(double p){this.hedgePercentile=p;}
+  public Duration getHedgeMinDelay(){return hedgeMinDelay;}
+  public void setHedgeMinDelay(Duration d){this.hedgeMinDelay=d;}
+  public Duration getHedgeMaxDelay(){return hedgeMaxDelay;}
+  public void setHedgeMaxDelay(Duration d){this.hedgeMaxDelay=d;}
+}
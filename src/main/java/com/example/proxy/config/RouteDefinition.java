@@ -1,14 +1,30 @@
 package com.example.proxy.config;
 
+import com.example.proxy.validation.ResponseValidationMode;
 import java.util.List;
+import java.util.Map;
+import org.springframework.util.unit.DataSize;
 
 public class RouteDefinition {
   private String name;
   private String path;
   private String targetUrl;
   private List<String> requiredHeaders;
+  private Map<String, String> headerPatterns; // header -> uuid | ip | ipv4 | ipv6 | regex
+  private HeaderPolicyProperties headers; // forwarding rules; null = forward all but hop-by-hop
   private String openApiSpec;
   private String profile; // e.g., UAE_OB
+  private ResponseValidationMode responseValidation = ResponseValidationMode.INLINE;
+  private double responseValidationSamplePercent = 100.0; // used by SAMPLED
+  private boolean streaming; // pass bodies through as DataBuffers when the route has no spec and does not sign; header checks still run
+  private DataSize streamBufferSize = DataSize.ofKilobytes(256);
+  private boolean signRequests = true; // detached JWS on non-GET calls when a signer is configured
+  private ConnectionPoolProperties pool; // null = default pool for the target host
+  private String clientIdentity; // security.mtls.identities key; null = default identity
+  private RateLimitProperties rateLimit; // null = unlimited
+  private ResponseCacheProperties responseCache; // null = no caching
+  private boolean coalesce; // share one upstream call among identical concurrent GETs (see RequestCoalescer)
+  private RetryPolicyProperties retry; // GET only; null = single attempt
 
   public String getName(){return name;}
   public void setName(String n){this.name=n;}
@@ -18,8 +34,34 @@ public class RouteDefinition {
   public void setTargetUrl(String t){this.targetUrl=t;}
   public List<String> getRequiredHeaders(){return requiredHeaders;}
   public void setRequiredHeaders(List<String> r){this.requiredHeaders=r;}
+  public Map<String, String> getHeaderPatterns(){return headerPatterns;}
+  public void setHeaderPatterns(Map<String, String> h){this.headerPatterns=h;}
+  public HeaderPolicyProperties getHeaders(){return headers;}
+  public void setHeaders(HeaderPolicyProperties h){this.headers=h;}
   public String getOpenApiSpec(){return openApiSpec;}
   public void setOpenApiSpec(String s){this.openApiSpec=s;}
   public String getProfile(){return profile;}
   public void setProfile(String p){this.profile=p;}
+  public ResponseValidationMode getResponseValidation(){return responseValidation;}
+  public void setResponseValidation(ResponseValidationMode m){this.responseValidation=m;}
+  public double getResponseValidationSamplePercent(){return responseValidationSamplePercent;}
+  public void setResponseValidationSamplePercent(double p){this.responseValidationSamplePercent=p;}
+  public boolean isStreaming(){return streaming;}
+  public void setStreaming(boolean s){this.streaming=s;}
+  public DataSize getStreamBufferSize(){return streamBufferSize;}
+  public void setStreamBufferSize(DataSize s){this.streamBufferSize=s;}
+  public boolean isSignRequests(){return signRequests;}
+  public void setSignRequests(boolean s){this.signRequests=s;}
+  public ConnectionPoolProperties getPool(){return pool;}
+  public void setPool(ConnectionPoolProperties p){this.pool=p;}
+  public String getClientIdentity(){return clientIdentity;}
+  public void setClientIdentity(String c){this.clientIdentity=c;}
+  public RateLimitProperties getRateLimit(){return rateLimit;}
+  public void setRateLimit(RateLimitProperties r){this.rateLimit=r;}
+  public ResponseCacheProperties getResponseCache(){return responseCache;}
+  public void setResponseCache(ResponseCacheProperties r){this.responseCache=r;}
+  public boolean isCoalesce(){return coalesce;}
+  public void setCoalesce(boolean c){this.coalesce=c;}
+  public RetryPolicyProperties getRetry(){return retry;}
+  public void setRetry(RetryPolicyProperties r){this.retry=r;}
 }
@@ -0,0 +1,44 @@
+package com.example.proxy.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * {@code proxy.upstream-guard.*}: adaptive concurrency limit and circuit breaker applied per upstream target.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "proxy.upstream-guard")
+public class UpstreamGuardProperties {
+  private boolean enabled = true;
+  private int initialLimit = 20;
+  private int minLimit = 4;
+  private int maxLimit = 500;
+  private int rttProbeInterval = 500; // samples between no-load RTT re-estimates
+  private int slidingWindow = 50; // calls considered for the failure rate
+  private int minimumCalls = 20;
+  private double failureRateThreshold = 50; // percent
+  private Duration openDuration = Duration.ofSeconds(10);
+  private int halfOpenProbes = 5;
+
+  public boolean isEnabled(){return enabled;}
+  public void setEnabled(boolean e){this.enabled=e;}
+  public int getInitialLimit(){return initialLimit;}
+  public void setInitialLimit(int l){this.initialLimit=l;}
+  public int getMinLimit(){return minLimit;}
+  public void setMinLimit(int l){this.minLimit=l;}
+  public int getMaxLimit(){return maxLimit;}
+  public void setMaxLimit(int l){this.maxLimit=l;}
+  public int getRttProbeInterval(){return rttProbeInterval;}
+  public void setRttProbeInterval(int i){this.rttProbeInterval=i;}
+  public int getSlidingWindow(){return slidingWindow;}
+  public void setSlidingWindow(int w){this.slidingWindow=w;}
+  public int getMinimumCalls(){return minimumCalls;}
+  public void setMinimumCalls(int m){this.minimumCalls=m;}
+  public double getFailureRateThreshold(){return failureRateThreshold;}
+  public void setFailureRateThreshold(double t){this.failureRateThreshold=t;}
+  public Duration getOpenDuration(){return openDuration;}
+  public void setOpenDuration(Duration d){this.openDuration=d;}
+  public int getHalfOpenProbes(){return halfOpenProbes;}
+  public void setHalfOpenProbes(int p){this.halfOpenProbes=p;}
+}
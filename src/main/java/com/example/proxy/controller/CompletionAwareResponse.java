@@ -0,0 +1,41 @@
+package com.example.proxy.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseCookie;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs {@code onEnd} once the wrapped response has been written, has failed or was cancelled, whether or
+ * not its body was ever subscribed.
+ */
+final class CompletionAwareResponse implements ServerResponse {
+  private final ServerResponse delegate;
+  private final Runnable onEnd;
+
+  CompletionAwareResponse(ServerResponse delegate, Runnable onEnd){
+    this.delegate = delegate;
+    this.onEnd = onEnd;
+  }
+
+  @Override
+  public HttpStatusCode statusCode(){ return delegate.statusCode(); }
+
+  @Override
+  @Deprecated
+  public int rawStatusCode(){ return delegate.statusCode().value(); }
+
+  @Override
+  public HttpHeaders headers(){ return delegate.headers(); }
+
+  @Override
+  public MultiValueMap<String, ResponseCookie> cookies(){ return delegate.cookies(); }
+
+  @Override
+  public Mono<Void> writeTo(ServerWebExchange exchange, Context context){
+    return delegate.writeTo(exchange, context).doFinally(s -> onEnd.run());
+  }
+}
@@ -1,122 +1,202 @@
 package com.example.proxy.controller;
 
-import com.example.proxy.config.RouteConfig;
+import com.example.proxy.cache.RequestCoalescer;
+import com.example.proxy.cache.RequestKey;
+import com.example.proxy.cache.ResponseCache;
+import com.example.proxy.client.RouteClients;
 import com.example.proxy.config.RouteDefinition;
-import com.example.proxy.registry.OpenApiRegistry;
+import com.example.proxy.error.ObErrorResponse;
+import com.example.proxy.exchange.ProxyExchangeContext;
+import com.example.proxy.headers.HeaderPolicies;
+import com.example.proxy.headers.HeaderPolicy;
+import com.example.proxy.metrics.Phase;
+import com.example.proxy.metrics.PhaseTimers;
+import com.example.proxy.ratelimit.RateLimiter;
+import com.example.proxy.resilience.UpstreamGuards;
+import com.example.proxy.resilience.UpstreamRetries;
+import com.example.proxy.resilience.UpstreamUnavailableException;
+import com.example.proxy.registry.RouteRegistry;
 import com.example.proxy.validation.*;
-import com.example.proxy.security.jws.DetachedJwsSigner;
-import com.example.proxy.security.jws.OutboundSigningFilter;
 
-import jakarta.annotation.PostConstruct;
-import jakarta.servlet.http.HttpServletRequest;
 import org.openapi4j.operation.validator.model.impl.DefaultRequest;
-import org.openapi4j.operation.validator.model.impl.DefaultResponse;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.*;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
 import reactor.core.publisher.Mono;
 
-import java.util.*;
-
-@RestController
-@RequestMapping("/proxy")
+/**
+ * Handler for {@code /proxy/{serviceName}/**}, wired in {@link com.example.proxy.config.ProxyRouterConfig}.
+ */
+@Component
 public class GenericProxyController {
 
-  private final WebClient webClient;
-  private final RouteConfig routeConfig;
-  private final OpenApiRegistry openApiRegistry;
-
-  private DetachedJwsSigner signer;
-
-  @Value("${security.jws.keystore.path:}")
-  private String jwsKsPath;
-  @Value("${security.jws.keystore.password:}")
-  private String jwsKsPassword;
-  @Value("${security.jws.key.alias:}")
-  private String jwsKeyAlias;
-  @Value("${security.jws.key.password:}")
-  private String jwsKeyPassword;
-
-  public GenericProxyController(WebClient webClient, RouteConfig routeConfig, OpenApiRegistry openApiRegistry) {
-    this.webClient = webClient;
-    this.routeConfig = routeConfig;
-    this.openApiRegistry = openApiRegistry;
+  private final RouteClients clients;
+  private final RouteRegistry routeRegistry;
+  private final OpenApiValidatorCache validators;
+  private final ResponseValidationService responseValidation;
+  private final StreamingProxyHandler streaming;
+  private final RouteValidators headerValidators;
+  private final HeaderPolicies headerPolicies;
+  private final RateLimiter rateLimiter;
+  private final UpstreamGuards upstreamGuards;
+  private final ResponseCache responseCache;
+  private final RequestCoalescer coalescer;
+  private final UpstreamRetries retries;
+  private final PhaseTimers phases;
+
+  public GenericProxyController(RouteClients clients, RouteRegistry routeRegistry, OpenApiValidatorCache validators,
+                                ResponseValidationService responseValidation, StreamingProxyHandler streaming,
+                                RouteValidators headerValidators, HeaderPolicies headerPolicies,
+                                RateLimiter rateLimiter, UpstreamGuards upstreamGuards, ResponseCache responseCache,
+                                RequestCoalescer coalescer, UpstreamRetries retries, PhaseTimers phases) {
+    this.clients = clients;
+    this.routeRegistry = routeRegistry;
+    this.validators = validators;
+    this.responseValidation = responseValidation;
+    this.streaming = streaming;
+    this.headerValidators = headerValidators;
+    this.headerPolicies = headerPolicies;
+    this.rateLimiter = rateLimiter;
+    this.upstreamGuards = upstreamGuards;
+    this.responseCache = responseCache;
+    this.coalescer = coalescer;
+    this.retries = retries;
+    this.phases = phases;
   }
 
-  @PostConstruct
-  public void init() {
-    try {
-      if (!jwsKsPath.isBlank()) {
-        signer = new DetachedJwsSigner(jwsKsPath, jwsKsPassword, jwsKeyAlias, jwsKeyPassword);
-      }
-    } catch (Exception e) {
-      throw new RuntimeException("Failed to init JWS signer", e);
+  public Mono<ServerResponse> proxy(ServerRequest serverRequest) {
+    long start = System.nanoTime();
+    ServerHttpRequest request = serverRequest.exchange().getRequest();
+    String path = serverRequest.path();
+
+    RouteDefinition route = routeRegistry.resolve(serverRequest.pathVariable("serviceName"), path);
+
+    if (route == null) {
+      return toServerResponse(ObErrorResponse.of(HttpStatus.NOT_FOUND, request,
+          ValidationResult.RESOURCE_NOT_FOUND, "No route for " + path, null));
+    }
+    PhaseTimers.RouteTimers timers = phases.forRoute(route);
+    long t = timers.record(Phase.ROUTE, start);
+
+    long waitNanos = rateLimiter.tryAcquire(route, request);
+    t = timers.record(Phase.ADMISSION, t);
+    if (waitNanos > 0) {
+      long retryAfter = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+      ResponseEntity<String> e = ObErrorResponse.of(HttpStatus.TOO_MANY_REQUESTS, request,
+          ValidationResult.RATE_LIMITED, "Rate limit exceeded for route " + route.getName(), null);
+      return ServerResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+          .headers(h -> h.addAll(e.getHeaders()))
+          .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter))
+          .bodyValue(e.getBody());
     }
-  }
 
-  @RequestMapping("/{serviceName}/**")
-  public Mono<ResponseEntity<String>> proxy(
-      @PathVariable String serviceName,
-      HttpServletRequest request,
-      @RequestBody(required = false) String body) {
+    // Profile, required and pattern header checks, compiled per route
+    ValidationResult headers = headerValidators.forRoute(route).validate(request);
+    timers.record(Phase.HEADER_VALIDATION, t);
+    if (!headers.isValid()) {
+      return toServerResponse(ObErrorResponse.of(HttpStatus.BAD_REQUEST, request, headers));
+    }
 
-    RouteDefinition route = routeConfig.getRoutes().stream()
-        .filter(r -> r.getName().equals(serviceName))
-        .findFirst().orElse(null);
+    if (StreamingProxyHandler.canStream(route, clients.signs(route, request.getMethod().name()))) {
+      // UPSTREAM and TOTAL are recorded when the relayed body ends, not at the response headers
+      return streaming.handle(serverRequest, route, timers, start);
+    }
 
-    if (route == null) return Mono.just(ResponseEntity.notFound().build());
+    return serverRequest.bodyToMono(String.class)
+        .defaultIfEmpty("")
+        .flatMap(body -> forward(request, path, route, timers, body))
+        .flatMap(GenericProxyController::toServerResponse)
+        .doFinally(s -> timers.record(Phase.TOTAL, start));
+  }
 
-    // Profile-specific validations (UAE OB)
-    if ("UAE_OB".equalsIgnoreCase(route.getProfile())) {
-      new UaeOpenBankingValidator().validate(request);
+  private Mono<ResponseEntity<String>> forward(ServerHttpRequest request, String path, RouteDefinition route,
+                                               PhaseTimers.RouteTimers timers, String body) {
+    String method = request.getMethod().name();
+
+    if (route.getOpenApiSpec()!=null && !validators.isReady(route.getName())){
+      // lazy spec loading: wait for the parse off the event loop, then take the normal path
+      return validators.load(route.getName()).then(Mono.defer(() -> forward(request, path, route, timers, body)));
     }
 
     // OpenAPI request validation
+    ResolvedOperation operation = null;
     if (route.getOpenApiSpec()!=null){
+      operation = validators.resolve(route.getName(), method, path);
+      if (operation==null){
+        return Mono.just(ObErrorResponse.of(HttpStatus.BAD_REQUEST, request,
+            ValidationResult.RESOURCE_NOT_FOUND, "No operation for " + method + " " + path, null));
+      }
+      long t = System.nanoTime();
       try {
-        var api = openApiRegistry.get(route.getName());
-        DefaultRequest req = new DefaultRequest.Builder(request.getRequestURI())
-            .method(request.getMethod())
+        DefaultRequest req = new DefaultRequest.Builder(path)
+            .method(method)
             .body(body)
             .build();
-        OpenApiValidatorUtil.validateRequest(api, req);
+        OpenApiValidatorUtil.validateRequest(operation, req);
+        timers.record(Phase.REQUEST_VALIDATION, t);
       } catch (Exception e) {
-        return Mono.just(ResponseEntity.badRequest().body("Request validation failed: " + e.getMessage()));
+        timers.record(Phase.REQUEST_VALIDATION, t);
+        // openapi4j reports schema violations as exceptions; this is the only throwing check left
+        return Mono.just(ObErrorResponse.of(HttpStatus.BAD_REQUEST, request,
+            ValidationResult.FIELD_INVALID, "Request validation failed: " + e.getMessage(), null));
       }
     }
 
-    WebClient client = this.webClient;
-    if (signer != null && !"GET".equalsIgnoreCase(request.getMethod())) {
-      client = this.webClient.mutate()
-          .filter(OutboundSigningFilter.withDetachedJwsHeader(signer))
-          .build();
+    String cacheKey = ResponseCache.applies(route, request) ? ResponseCache.key(route, request) : null;
+    if (cacheKey!=null){
+      ResponseEntity<String> hit = responseCache.lookup(route, cacheKey, request);
+      if (hit!=null) return Mono.just(hit);
     }
 
+    WebClient client = clients.select(route, method);
+    HeaderPolicy headerPolicy = headerPolicies.forRoute(route);
     String target = route.getTargetUrl();
+    ResolvedOperation op = operation;
 
-    return client.method(HttpMethod.valueOf(request.getMethod()))
+    Mono<ResponseEntity<String>> call = client.method(HttpMethod.valueOf(method))
         .uri(target)
-        .headers(h -> Collections.list(request.getHeaderNames()).forEach(n -> h.add(n, request.getHeader(n))))
-        .attribute("proxiedBody", body == null ? "" : body)
-        .bodyValue(body == null ? "" : body)
+        .headers(h -> headerPolicy.apply(request.getHeaders(), h))
+        .bodyValue(body)
         .retrieve()
-        .toEntity(String.class)
-        .flatMap(resp -> {
-          if (route.getOpenApiSpec()!=null){
-            try{
-              var api = openApiRegistry.get(route.getName());
-              DefaultRequest req = new DefaultRequest.Builder(request.getRequestURI())
-                  .method(request.getMethod()).build();
-              DefaultResponse r = new DefaultResponse.Builder(resp.getStatusCode().value())
-                  .body(resp.getBody()).build();
-              OpenApiValidatorUtil.validateResponse(api, req, r);
-            }catch(Exception e){
-              return Mono.just(ResponseEntity.internalServerError().body("Response validation failed: " + e.getMessage()));
-            }
-          }
-          return Mono.just(resp);
-        });
+        .toEntity(String.class);
+    Mono<ResponseEntity<String>> timed = Mono.defer(() -> {
+      long t = System.nanoTime();
+      return call.doFinally(s -> timers.record(Phase.UPSTREAM, t));
+    });
+
+    Mono<ResponseEntity<String>> guarded = upstreamGuards.protect(target, timed);
+    if ("GET".equals(method)){
+      guarded = retries.apply(route, guarded);
+    }
+    if (route.isCoalesce() && "GET".equals(method)){
+      String key = RequestKey.forCoalescing(route, request, route.getResponseCache()!=null
+          ? route.getResponseCache().getIdentityHeaders() : RequestKey.DEFAULT_IDENTITY_HEADERS);
+      Mono<ResponseEntity<String>> single = guarded;
+      guarded = coalescer.execute(route, key, request, () -> single);
+    }
+
+    if (clients.signs(route, method)){
+      // only the signing filter reads the encoded body
+      guarded = guarded.contextWrite(ProxyExchangeContext.of(route, body)::writeTo);
+    }
+    return guarded
+        .flatMap(resp -> op==null ? Mono.just(resp) : responseValidation.apply(route, op, resp))
+        .doOnNext(resp -> {
+          if (cacheKey!=null) responseCache.store(route, cacheKey, request, resp);
+        })
+        .onErrorResume(UpstreamUnavailableException.class, e -> Mono.just(ObErrorResponse.of(
+            HttpStatus.SERVICE_UNAVAILABLE, request, ValidationResult.UPSTREAM_UNAVAILABLE, e.getMessage(), null)));
+  }
+
+  public static Mono<ServerResponse> toServerResponse(ResponseEntity<String> resp) {
+    ServerResponse.BodyBuilder b = ServerResponse.status(resp.getStatusCode())
+        .headers(h -> HeaderPolicy.DEFAULT.apply(resp.getHeaders(), h));
+    return resp.getBody()==null ? b.build() : b.bodyValue(resp.getBody());
   }
 }
@@ -0,0 +1,126 @@
+package com.example.proxy.controller;
+
+import com.example.proxy.client.RouteClients;
+import com.example.proxy.config.RouteDefinition;
+import com.example.proxy.headers.HeaderPolicies;
+import com.example.proxy.error.ObErrorResponse;
+import com.example.proxy.headers.HeaderPolicy;
+import com.example.proxy.metrics.Phase;
+import com.example.proxy.metrics.PhaseTimers;
+import com.example.proxy.resilience.UpstreamGuards;
+import com.example.proxy.resilience.UpstreamUnavailableException;
+import com.example.proxy.validation.ValidationResult;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Forwards request and response bodies as {@code Flux<DataBuffer>} without decoding them.
+ * Buffers are released once written; at most {@link RouteDefinition#getStreamBufferSize()} bytes
+ * (in chunks of up to {@value #CHUNK_SIZE} bytes) are requested ahead in either direction.
+ * {@link Phase#UPSTREAM} and {@link Phase#TOTAL} run until the response body has been relayed.
+ */
+@Component
+public class StreamingProxyHandler {
+
+  static final int CHUNK_SIZE = 16 * 1024;
+
+  private final RouteClients clients;
+  private final HeaderPolicies headerPolicies;
+  private final UpstreamGuards upstreamGuards;
+
+  public StreamingProxyHandler(RouteClients clients, HeaderPolicies headerPolicies, UpstreamGuards upstreamGuards) {
+    this.clients = clients;
+    this.headerPolicies = headerPolicies;
+    this.upstreamGuards = upstreamGuards;
+  }
+
+  /** Routes with body validation or signing need the whole payload and cannot stream. */
+  public static boolean canStream(RouteDefinition route, boolean signs) {
+    return route.isStreaming() && route.getOpenApiSpec() == null && !signs;
+  }
+
+  public Mono<ServerResponse> handle(ServerRequest serverRequest, RouteDefinition route,
+                                     PhaseTimers.RouteTimers timers, long start) {
+    ServerHttpRequest request = serverRequest.exchange().getRequest();
+    int prefetch = prefetch(route);
+
+    Flux<DataBuffer> upstreamBody = request.getBody()
+        .limitRate(prefetch)
+        .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+
+    Mono<ResponseEntity<Flux<DataBuffer>>> call = clients.select(route, request.getMethod().name()).method(request.getMethod())
+        .uri(route.getTargetUrl())
+        .headers(h -> headerPolicies.forRoute(route).apply(request.getHeaders(), h))
+        .body(BodyInserters.fromDataBuffers(upstreamBody))
+        .retrieve()
+        .onStatus(s -> true, r -> Mono.empty())
+        .toEntityFlux(DataBuffer.class);
+
+    return Mono.defer(() -> {
+      Timing timing = new Timing(timers, start);
+      // 5xx responses are relayed as they are but still count against the circuit; the slot lasts until the body
+      // ends, or until the response write ends if the body never started (client gone, write failed)
+      return upstreamGuards.protectStream(route.getTargetUrl(), timing.upstream(call))
+          .flatMap(guarded -> {
+            ResponseEntity<Flux<DataBuffer>> resp = guarded.response();
+            return ServerResponse.status(resp.getStatusCode())
+                .headers(h -> HeaderPolicy.STREAMED_RESPONSE.apply(resp.getHeaders(), h))
+                .body(BodyInserters.fromDataBuffers(resp.getBody()
+                    .limitRate(prefetch)
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .doFinally(s -> timing.finish())))
+                .map(r -> (ServerResponse) new CompletionAwareResponse(r, () -> {
+                  guarded.release();
+                  timing.finish();
+                }));
+          })
+          .doOnError(e -> timing.finish())
+          .doOnCancel(timing::finish)
+          .onErrorResume(UpstreamUnavailableException.class, e -> GenericProxyController.toServerResponse(
+              ObErrorResponse.of(HttpStatus.SERVICE_UNAVAILABLE, request, ValidationResult.UPSTREAM_UNAVAILABLE, e.getMessage(), null)));
+    });
+  }
+
+  private static int prefetch(RouteDefinition route) {
+    long bytes = route.getStreamBufferSize().toBytes();
+    return (int) Math.max(1, Math.min(Integer.MAX_VALUE, bytes / CHUNK_SIZE));
+  }
+
+  /** Records UPSTREAM (from the upstream subscription, if the guard let it through) and TOTAL once. */
+  private static final class Timing {
+    private final PhaseTimers.RouteTimers timers;
+    private final long start;
+    private final AtomicBoolean done = new AtomicBoolean();
+    private volatile long upstreamStart;
+
+    Timing(PhaseTimers.RouteTimers timers, long start){
+      this.timers = timers;
+      this.start = start;
+    }
+
+    <T> Mono<T> upstream(Mono<T> call){
+      return Mono.defer(() -> {
+        upstreamStart = System.nanoTime();
+        return call;
+      });
+    }
+
+    void finish(){
+      if (!done.compareAndSet(false, true)) return;
+      long t = upstreamStart;
+      if (t!=0) timers.record(Phase.UPSTREAM, t);
+      timers.record(Phase.TOTAL, start);
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package com.example.proxy.error;
+
+import com.example.proxy.validation.ValidationResult;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Open Banking style error body:
+ * {@code {"Code":"400","Id":"...","Message":"...","Errors":[{"ErrorCode":"...","Message":"...","Path":"..."}]}}.
+ * Id echoes the caller's x-fapi-interaction-id when it is present.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ObErrorResponse(
+    @JsonProperty("Code") String code,
+    @JsonProperty("Id") String id,
+    @JsonProperty("Message") String message,
+    @JsonProperty("Errors") List<Item> errors) {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public record Item(
+      @JsonProperty("ErrorCode") String errorCode,
+      @JsonProperty("Message") String message,
+      @JsonProperty("Path") String path) {}
+
+  public static ResponseEntity<String> of(HttpStatus status, ServerHttpRequest request, ValidationResult failure){
+    return of(status, request, failure.errorCode(), failure.message(), failure.path());
+  }
+
+  public static ResponseEntity<String> of(HttpStatus status, ServerHttpRequest request,
+                                          String errorCode, String message, String path){
+    String id = request==null ? null : request.getHeaders().getFirst("x-fapi-interaction-id");
+    ObErrorResponse body = new ObErrorResponse(String.valueOf(status.value()),
+        id!=null ? id : UUID.randomUUID().toString(),
+        status.getReasonPhrase(),
+        List.of(new Item(errorCode, message, path)));
+    try{
+      return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(MAPPER.writeValueAsString(body));
+    }catch(JsonProcessingException e){
+      throw new IllegalStateException(e);
+    }
+  }
+}
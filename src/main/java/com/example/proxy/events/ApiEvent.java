@@ -0,0 +1,38 @@
+package com.example.proxy.events;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Audit record of one validated API call. The id is assigned on creation so callers can reference the
+ * event (e.g. as the publish key) before it has been persisted.
+ */
+public class ApiEvent {
+  private final String id = UUID.randomUUID().toString();
+  private final Instant createdAt = Instant.now();
+  private String path;
+  private String method;
+  private Map<String, String> headers;
+  private String body;
+  private boolean valid;
+  private String validationErrors;
+  private String topic; // null = persist only
+
+  public String getId(){return id;}
+  public Instant getCreatedAt(){return createdAt;}
+  public String getPath(){return path;}
+  public void setPath(String p){this.path=p;}
+  public String getMethod(){return method;}
+  public void setMethod(String m){this.method=m;}
+  public Map<String, String> getHeaders(){return headers;}
+  public void setHeaders(Map<String, String> h){this.headers=h;}
+  public String getBody(){return body;}
+  public void setBody(String b){this.body=b;}
+  public boolean isValid(){return valid;}
+  public void setValid(boolean v){this.valid=v;}
+  public String getValidationErrors(){return validationErrors;}
+  public void setValidationErrors(String e){this.validationErrors=e;}
+  public String getTopic(){return topic;}
+  public void setTopic(String t){this.topic=t;}
+}
@@ -0,0 +1,175 @@
+package com.example.proxy.events;
+
+import com.example.proxy.config.EventPipelineProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind for {@link ApiEvent}s. Request threads only {@link #submit} into a bounded lock-free queue
+ * (a {@link ConcurrentLinkedQueue} plus an atomic size); one writer thread drains it in batches, persists
+ * each batch and then publishes it, so neither round trip is on the request path.
+ *
+ * <p>Backpressure: submit never blocks. When {@code capacity} events are already queued the new event is
+ * dropped, counted as {@code proxy.events{result=dropped}} and {@code false} is returned, so a caller
+ * that must not lose events can reject its request instead. A batch the store still refuses after
+ * {@code maxRetries} is dropped and not published; a publish failure leaves the batch persisted.
+ *
+ * <p>An interrupt stops the writer: the batch in hand is given up and whatever is still queued is counted
+ * as dropped. {@link #close(long)} interrupts it when the flush does not finish in time.
+ */
+public class ApiEventPipeline implements AutoCloseable {
+  private static final Logger log = LoggerFactory.getLogger(ApiEventPipeline.class);
+
+  private final ApiEventStore store;
+  private final ApiEventPublisher publisher;
+  private final int capacity;
+  private final int batchSize;
+  private final long maxDelayNanos;
+  private final int maxRetries;
+  private final long retryBackoffMillis;
+
+  private final ConcurrentLinkedQueue<ApiEvent> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger size = new AtomicInteger();
+  private final Thread writer;
+  private volatile boolean running = true;
+
+  private final Counter dropped;
+  private final Counter persisted;
+  private final Counter published;
+  private final Counter persistFailed;
+  private final Counter publishFailed;
+
+  public ApiEventPipeline(ApiEventStore store, ApiEventPublisher publisher, EventPipelineProperties props,
+                          MeterRegistry meters){
+    this.store = store;
+    this.publisher = publisher;
+    this.capacity = props.getCapacity();
+    this.batchSize = Math.max(1, props.getBatchSize());
+    this.maxDelayNanos = props.getMaxDelay().toNanos();
+    this.maxRetries = props.getMaxRetries();
+    this.retryBackoffMillis = props.getRetryBackoff().toMillis();
+    this.dropped = meters.counter("proxy.events", "result", "dropped");
+    this.persisted = meters.counter("proxy.events", "result", "persisted");
+    this.published = meters.counter("proxy.events", "result", "published");
+    this.persistFailed = meters.counter("proxy.events", "result", "persist_failed");
+    this.publishFailed = meters.counter("proxy.events", "result", "publish_failed");
+    Gauge.builder("proxy.events.queued", size, AtomicInteger::get).register(meters);
+    this.writer = new Thread(this::run, "api-event-writer");
+    this.writer.setDaemon(true);
+    this.writer.start();
+  }
+
+  /** Queues the event for persistence and publishing; false when it was dropped because the queue is full. */
+  public boolean submit(ApiEvent event){
+    int n = size.incrementAndGet();
+    if (n > capacity || !running){
+      size.decrementAndGet();
+      dropped.increment();
+      return false;
+    }
+    queue.offer(event);
+    if (n==batchSize) LockSupport.unpark(writer);
+    return true;
+  }
+
+  public int queued(){ return size.get(); }
+
+  /** False when a {@link #submit} now would be dropped. */
+  public boolean hasCapacity(){ return running && size.get() < capacity; }
+
+  private void run(){
+    List<ApiEvent> batch = new ArrayList<>(batchSize);
+    Thread self = Thread.currentThread();
+    while ((running || size.get() > 0) && !self.isInterrupted()){
+      long deadline = System.nanoTime() + maxDelayNanos;
+      long wait;
+      while (running && size.get() < batchSize && !self.isInterrupted() && (wait = deadline - System.nanoTime()) > 0){
+        LockSupport.parkNanos(this, wait);
+      }
+      // drain everything that is queued now, a full batch at a time
+      do {
+        batch.clear();
+        ApiEvent e;
+        while (batch.size() < batchSize && (e = queue.poll())!=null){
+          size.decrementAndGet();
+          batch.add(e);
+        }
+        if (!batch.isEmpty()) flush(List.copyOf(batch));
+      } while (batch.size()==batchSize && !self.isInterrupted());
+    }
+    int left = size.getAndSet(0);
+    queue.clear();
+    if (left > 0){
+      dropped.increment(left);
+      log.warn("API event writer interrupted, {} queued events dropped", left);
+    }
+  }
+
+  private void flush(List<ApiEvent> batch){
+    if (!attempt(() -> store.saveAll(batch), "persist", batch.size())){
+      persistFailed.increment(batch.size());
+      return;
+    }
+    persisted.increment(batch.size());
+    if (!attempt(() -> publisher.publishAll(batch), "publish", batch.size())){
+      publishFailed.increment(batch.size());
+      return;
+    }
+    published.increment(batch.size());
+  }
+
+  private interface Step { void run() throws Exception; }
+
+  private boolean attempt(Step step, String what, int events){
+    for (int i=0; ; i++){
+      try{
+        step.run();
+        return true;
+      }catch(InterruptedException e){
+        // keep the flag so run() stops instead of parking (and returning at once) in a loop
+        Thread.currentThread().interrupt();
+        log.warn("Interrupted, could not {} {} API events", what, events);
+        return false;
+      }catch(Exception e){
+        if (i >= maxRetries){
+          log.warn("Giving up to {} {} API events after {} attempts: {}", what, events, i + 1, e.getMessage());
+          return false;
+        }
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(retryBackoffMillis << Math.min(i, 10)));
+        if (Thread.currentThread().isInterrupted()){
+          log.warn("Interrupted, could not {} {} API events", what, events);
+          return false;
+        }
+      }
+    }
+  }
+
+  /**
+   * Stops accepting events and flushes what is queued, waiting at most {@code timeoutMillis}; after that
+   * the writer is interrupted and the rest is dropped.
+   */
+  public void close(long timeoutMillis) throws InterruptedException {
+    running = false;
+    LockSupport.unpark(writer);
+    writer.join(timeoutMillis);
+    if (writer.isAlive()){
+      writer.interrupt();
+      writer.join(1_000);
+    }
+  }
+
+  @Override
+  public void close() throws InterruptedException {
+    close(10_000);
+  }
+}
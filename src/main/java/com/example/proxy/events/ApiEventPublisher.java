@@ -0,0 +1,8 @@
+package com.example.proxy.events;
+
+import java.util.List;
+
+/** Publishes the events of a persisted batch that name a topic: key = event id, value = body (e.g. one Kafka send batch). */
+public interface ApiEventPublisher {
+  void publishAll(List<ApiEvent> batch) throws Exception;
+}
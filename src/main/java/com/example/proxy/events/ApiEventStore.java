@@ -0,0 +1,8 @@
+package com.example.proxy.events;
+
+import java.util.List;
+
+/** Persists events in batches, e.g. one multi-row insert per call. Must be all-or-nothing per batch. */
+public interface ApiEventStore {
+  void saveAll(List<ApiEvent> batch) throws Exception;
+}
@@ -0,0 +1,42 @@
+package com.example.proxy.events;
+
+import com.example.filter.ValidationFilter;
+import com.example.proxy.config.EventPipelineProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires the {@link ApiEventPipeline} when {@code proxy.events.enabled}. The store and publisher default to
+ * the in-memory stand-ins; declare {@link ApiEventStore} / {@link ApiEventPublisher} beans for the
+ * real database and Kafka. {@link ValidationFilter} feeds it one event per proxied call.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "proxy.events", name = "enabled", havingValue = "true")
+public class EventPipelineConfig {
+
+  @Bean
+  @ConditionalOnMissingBean
+  public ApiEventStore apiEventStore(EventPipelineProperties props){
+    return new InMemoryApiEventStore(props.getInMemoryLatency());
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  public ApiEventPublisher apiEventPublisher(EventPipelineProperties props){
+    return new InMemoryApiEventPublisher(props.getInMemoryLatency());
+  }
+
+  @Bean(destroyMethod = "close")
+  public ApiEventPipeline apiEventPipeline(ApiEventStore store, ApiEventPublisher publisher,
+                                           EventPipelineProperties props, MeterRegistry meters){
+    return new ApiEventPipeline(store, publisher, props, meters);
+  }
+
+  @Bean
+  public ValidationFilter validationFilter(ApiEventPipeline events, EventPipelineProperties props){
+    return new ValidationFilter(events, props.getTopic());
+  }
+}
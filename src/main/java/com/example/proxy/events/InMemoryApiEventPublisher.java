@@ -0,0 +1,30 @@
+package com.example.proxy.events;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/** Local stand-in for the Kafka producer: keeps published event ids per topic. */
+public class InMemoryApiEventPublisher implements ApiEventPublisher {
+  private final Map<String, ConcurrentLinkedQueue<String>> byTopic = new ConcurrentHashMap<>();
+  private final Duration latency;
+
+  public InMemoryApiEventPublisher(Duration latency){
+    this.latency = latency;
+  }
+
+  @Override
+  public void publishAll(List<ApiEvent> batch) throws InterruptedException {
+    if (!latency.isZero()) Thread.sleep(latency.toMillis());
+    for (ApiEvent e: batch){
+      if (e.getTopic()!=null) byTopic.computeIfAbsent(e.getTopic(), t -> new ConcurrentLinkedQueue<>()).add(e.getId());
+    }
+  }
+
+  public List<String> published(String topic){
+    ConcurrentLinkedQueue<String> q = byTopic.get(topic);
+    return q==null ? List.of() : List.copyOf(q);
+  }
+}
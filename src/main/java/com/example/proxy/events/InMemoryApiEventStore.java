@@ -0,0 +1,24 @@
+package com.example.proxy.events;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/** Local stand-in for the event database; {@code latency} simulates the round trip of one batch insert. */
+public class InMemoryApiEventStore implements ApiEventStore {
+  private final ConcurrentLinkedQueue<ApiEvent> events = new ConcurrentLinkedQueue<>();
+  private final Duration latency;
+
+  public InMemoryApiEventStore(Duration latency){
+    this.latency = latency;
+  }
+
+  @Override
+  public void saveAll(List<ApiEvent> batch) throws InterruptedException {
+    if (!latency.isZero()) Thread.sleep(latency.toMillis());
+    events.addAll(batch);
+  }
+
+  public List<ApiEvent> events(){ return new ArrayList<>(events); }
+}
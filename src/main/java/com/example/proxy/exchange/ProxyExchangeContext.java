@@ -0,0 +1,24 @@
+package com.example.proxy.exchange;
+
+import com.example.proxy.config.RouteDefinition;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Per-exchange state for an outbound call, carried in the Reactor {@link Context}
+ * so client filters can read it without untyped request attributes.
+ */
+public record ProxyExchangeContext(RouteDefinition route, byte[] body) {
+
+  public static ProxyExchangeContext of(RouteDefinition route, String body){
+    return new ProxyExchangeContext(route, body==null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public Context writeTo(Context ctx){ return ctx.put(ProxyExchangeContext.class, this); }
+
+  public static ProxyExchangeContext from(ContextView ctx){
+    return ctx.getOrDefault(ProxyExchangeContext.class, null);
+  }
+}
@@ -0,0 +1,49 @@
+package com.example.proxy.headers;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Open-addressing table keyed by header name, compared ASCII case-insensitively so lookups
+ * neither lower-case nor allocate. Keys are stored interned in lower case. Immutable after construction.
+ */
+final class HeaderNameTable<V> {
+  private final String[] keys;
+  private final Object[] values;
+  private final int mask;
+
+  HeaderNameTable(Map<String, V> entries){
+    int cap = Integer.highestOneBit(Math.max(4, entries.size() * 2 + 1) - 1) << 1;
+    keys = new String[cap];
+    values = new Object[cap];
+    mask = cap - 1;
+    for (Map.Entry<String, V> e: entries.entrySet()){
+      String k = e.getKey().toLowerCase(Locale.ROOT).intern();
+      int i = hash(k) & mask;
+      while (keys[i]!=null && !keys[i].equals(k)) i = (i+1) & mask;
+      keys[i] = k;
+      values[i] = e.getValue();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  V get(String name){
+    int i = hash(name) & mask;
+    String k;
+    while ((k = keys[i])!=null){
+      if (k.length()==name.length() && k.regionMatches(true, 0, name, 0, k.length())) return (V) values[i];
+      i = (i+1) & mask;
+    }
+    return null;
+  }
+
+  private static int hash(String s){
+    int h = 0;
+    for (int i=0;i<s.length();i++){
+      char c = s.charAt(i);
+      if (c>='A' && c<='Z') c = (char)(c + 32);
+      h = 31*h + c;
+    }
+    return h ^ (h >>> 16);
+  }
+}
@@ -0,0 +1,41 @@
+package com.example.proxy.headers;
+
+import com.example.proxy.config.RouteDefinition;
+import com.example.proxy.registry.RouteRegistry;
+import com.example.proxy.registry.RouteTable;
+import com.example.proxy.registry.RouteTableRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/** {@link HeaderPolicy} per route, compiled at startup and again whenever the route table is refreshed. */
+@Component
+public class HeaderPolicies {
+  private volatile ConcurrentHashMap<String, HeaderPolicy> policies;
+
+  public HeaderPolicies(RouteRegistry routes){
+    this.policies = compileAll(routes.current());
+  }
+
+  @EventListener
+  public void onRoutesRefreshed(RouteTableRefreshedEvent event){
+    policies = compileAll(event.table());
+  }
+
+  public HeaderPolicy forRoute(RouteDefinition route){
+    return policies.computeIfAbsent(route.getName(), n -> compile(route));
+  }
+
+  private static ConcurrentHashMap<String, HeaderPolicy> compileAll(RouteTable table){
+    ConcurrentHashMap<String, HeaderPolicy> m = new ConcurrentHashMap<>();
+    for (RouteDefinition r: table.routes()){
+      m.put(r.getName(), compile(r));
+    }
+    return m;
+  }
+
+  private static HeaderPolicy compile(RouteDefinition route){
+    return route.getHeaders()==null ? HeaderPolicy.DEFAULT : new HeaderPolicy(route.getHeaders());
+  }
+}
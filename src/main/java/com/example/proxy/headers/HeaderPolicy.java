@@ -0,0 +1,106 @@
+package com.example.proxy.headers;
+
+import com.example.proxy.config.HeaderPolicyProperties;
+import org.springframework.http.HttpHeaders;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A route's header forwarding rules compiled into a single lookup table. Hop-by-hop headers
+ * (RFC 7230 6.1, plus Host and Content-Length, which the client sets itself) are never forwarded,
+ * nor is any header named in the inbound {@code Connection} header.
+ */
+public final class HeaderPolicy {
+
+  static final List<String> HOP_BY_HOP = List.of(
+      "connection", "keep-alive", "proxy-authenticate", "proxy-authorization", "proxy-connection",
+      "te", "trailer", "transfer-encoding", "upgrade", "host", "content-length");
+
+  /** Hop-by-hop stripping only; also used for buffered upstream responses, whose length the server recomputes. */
+  public static final HeaderPolicy DEFAULT = new HeaderPolicy(null);
+
+  /**
+   * For streamed upstream responses. Content-Length is end-to-end (RFC 9110 8.6) and the body is relayed
+   * unchanged, so it is kept; dropping it would turn every download into a chunked one.
+   */
+  public static final HeaderPolicy STREAMED_RESPONSE = new HeaderPolicy(null, "content-length");
+
+  private static final Rule DROP = new Rule(null);
+
+  private final HeaderNameTable<Rule> rules;
+  private final boolean allowListed;
+  private final String[][] inject;
+
+  public HeaderPolicy(HeaderPolicyProperties props){
+    this(props, null);
+  }
+
+  private HeaderPolicy(HeaderPolicyProperties props, String keep){
+    Map<String, Rule> m = new HashMap<>();
+    boolean allowListed = false;
+    if (props!=null && props.getAllow()!=null && !props.getAllow().isEmpty()){
+      allowListed = true;
+      for (String h: props.getAllow()) m.put(h.toLowerCase(Locale.ROOT), new Rule(null));
+    }
+    if (props!=null && props.getRename()!=null){
+      for (Map.Entry<String, String> e: props.getRename().entrySet()){
+        String from = e.getKey().toLowerCase(Locale.ROOT);
+        if (!allowListed || m.containsKey(from)) m.put(from, new Rule(e.getValue().intern()));
+      }
+    }
+    if (props!=null && props.getDeny()!=null){
+      for (String h: props.getDeny()) m.put(h.toLowerCase(Locale.ROOT), DROP);
+    }
+    for (String h: HOP_BY_HOP){
+      if (!h.equals(keep)) m.put(h, DROP);
+    }
+    this.rules = new HeaderNameTable<>(m);
+    this.allowListed = allowListed;
+
+    List<String[]> inj = new ArrayList<>();
+    if (props!=null && props.getInject()!=null){
+      props.getInject().forEach((k, v) -> inj.add(new String[]{k.intern(), v}));
+    }
+    this.inject = inj.toArray(new String[0][]);
+  }
+
+  public void apply(HttpHeaders in, HttpHeaders out){
+    List<String> connection = in.get(HttpHeaders.CONNECTION);
+    for (Map.Entry<String, List<String>> e: in.entrySet()){
+      String name = e.getKey();
+      Rule r = rules.get(name);
+      if (r==DROP || (r==null && allowListed) || namedIn(connection, name)) continue;
+      out.addAll(r==null || r.target==null ? name : r.target, e.getValue());
+    }
+    for (String[] kv: inject){
+      out.set(kv[0], kv[1]);
+    }
+  }
+
+  /** Headers listed in Connection are hop-by-hop for this message (RFC 7230 6.1). */
+  private static boolean namedIn(List<String> connection, String name){
+    if (connection==null) return false;
+    for (String v: connection){
+      int start = 0;
+      while (start < v.length()){
+        int end = v.indexOf(',', start);
+        if (end < 0) end = v.length();
+        int s = start, t = end;
+        while (s < t && v.charAt(s)==' ') s++;
+        while (t > s && v.charAt(t-1)==' ') t--;
+        if (t-s==name.length() && v.regionMatches(true, s, name, 0, name.length())) return true;
+        start = end + 1;
+      }
+    }
+    return false;
+  }
+
+  private static final class Rule {
+    final String target; // null = keep the inbound name
+    Rule(String target){ this.target = target; }
+  }
+}
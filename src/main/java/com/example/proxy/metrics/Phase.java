@@ -0,0 +1,17 @@
+package com.example.proxy.metrics;
+
+import java.util.Locale;
+
+/** Steps of a proxied call, recorded as {@code proxy.phase{route,phase}}. */
+public enum Phase {
+  ROUTE,
+  ADMISSION,
+  HEADER_VALIDATION,
+  REQUEST_VALIDATION,
+  JWS_SIGN,
+  UPSTREAM, // includes connection acquisition, see reactor.netty.connection.provider.pending.connections.time
+  RESPONSE_VALIDATION,
+  TOTAL;
+
+  final String tag = name().toLowerCase(Locale.ROOT);
+}
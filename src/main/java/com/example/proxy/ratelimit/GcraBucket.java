@@ -0,0 +1,30 @@
+package com.example.proxy.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket expressed as GCRA: the whole state is one "theoretical arrival time", updated with a
+ * single CAS, so acquiring never locks and contention costs at most a few CAS retries.
+ */
+final class GcraBucket {
+  private final long emissionIntervalNanos;
+  private final long burstToleranceNanos;
+  private final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+
+  GcraBucket(double permitsPerSecond, int burst){
+    this.emissionIntervalNanos = Math.max(1L, (long) (1_000_000_000L / permitsPerSecond));
+    this.burstToleranceNanos = emissionIntervalNanos * Math.max(1, burst);
+  }
+
+  /** Takes one token; returns 0 when admitted, else nanoseconds until a token is available. */
+  long tryAcquire(long nowNanos){
+    while (true){
+      long current = tat.get();
+      long base = current==Long.MIN_VALUE ? nowNanos : Math.max(current, nowNanos);
+      long next = base + emissionIntervalNanos;
+      long allowAt = next - burstToleranceNanos;
+      if (allowAt > nowNanos) return allowAt - nowNanos;
+      if (tat.compareAndSet(current, next)) return 0;
+    }
+  }
+}
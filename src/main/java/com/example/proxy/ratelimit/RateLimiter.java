@@ -0,0 +1,71 @@
+package com.example.proxy.ratelimit;
+
+import com.example.proxy.config.RateLimitProperties;
+import com.example.proxy.config.RouteDefinition;
+import com.example.proxy.registry.RouteTableRefreshedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.SslInfo;
+import org.springframework.stereotype.Component;
+
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+
+/**
+ * Admission control per route and calling client. Buckets live in a bounded Caffeine map
+ * (concurrent, striped) and expire once a client has been idle for {@code proxy.rate-limit.idle-expiry}.
+ */
+@Component
+public class RateLimiter {
+
+  static final String ANONYMOUS = "anonymous";
+
+  private final Cache<String, GcraBucket> buckets;
+  private final MeterRegistry meters;
+
+  public RateLimiter(MeterRegistry meters,
+                     @Value("${proxy.rate-limit.max-clients:100000}") long maxClients,
+                     @Value("${proxy.rate-limit.idle-expiry:10m}") Duration idleExpiry){
+    this.meters = meters;
+    this.buckets = Caffeine.newBuilder()
+        .maximumSize(maxClients)
+        .expireAfterAccess(idleExpiry)
+        .build();
+  }
+
+  /** Buckets carry the rate they were created with, so a refreshed route table starts them over. */
+  @EventListener
+  public void onRoutesRefreshed(RouteTableRefreshedEvent event){
+    buckets.invalidateAll();
+  }
+
+  /** Returns 0 when the request may proceed, else the nanoseconds the client should wait. */
+  public long tryAcquire(RouteDefinition route, ServerHttpRequest request){
+    RateLimitProperties limit = route.getRateLimit();
+    if (limit==null) return 0;
+    String key = route.getName() + '|' + clientId(request, limit);
+    GcraBucket bucket = buckets.get(key, k -> new GcraBucket(limit.getPermitsPerSecond(), limit.getBurst()));
+    long wait = bucket.tryAcquire(System.nanoTime());
+    if (wait > 0){
+      meters.counter("proxy.ratelimit.rejected", "route", route.getName()).increment();
+    }
+    return wait;
+  }
+
+  static String clientId(ServerHttpRequest request, RateLimitProperties limit){
+    SslInfo ssl = request.getSslInfo();
+    if (ssl!=null){
+      X509Certificate[] certs = ssl.getPeerCertificates();
+      if (certs!=null && certs.length > 0) return certs[0].getSubjectX500Principal().getName();
+    }
+    for (String h: limit.getIdentityHeaders()){
+      String v = request.getHeaders().getFirst(h);
+      if (v!=null && !v.isBlank()) return v;
+    }
+    return ANONYMOUS;
+  }
+}
@@ -2,31 +2,289 @@ package com.example.proxy.registry;
 
 import org.openapi4j.parser.OpenApi3Parser;
 import org.openapi4j.parser.model.v3.OpenApi3;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import com.example.proxy.config.RouteConfig;
 import com.example.proxy.config.RouteDefinition;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+/**
+ * Parsed specs by route name. In {@code eager} mode (default) all specs are parsed at startup across
+ * {@code proxy.openapi.parallelism} threads; in {@code lazy} mode a spec is parsed on first use, on
+ * {@code boundedElastic} via {@link #loadAsync} so the request's event loop never does the file I/O.
+ * With {@code proxy.openapi.snapshot-dir} set, unchanged specs are restored from {@link OpenApiSnapshotStore}.
+ * Load time per spec is logged and recorded as {@code proxy.openapi.load{route,source}}.
+ * <p>
+ * With {@code proxy.openapi.watch=true} spec files, and the files they currently reference, are watched
+ * (the set is re-registered whenever a load finds different references); a spec whose content hash changed is
+ * re-parsed on the watcher thread and the finished model replaces the old one in a single map write,
+ * so readers never lock and never observe a partially built spec. A spec that fails to parse is
+ * logged and the previous one stays in service.
+ * <p>
+ * A {@link RouteTableRefreshedEvent} drops the specs of routes that were removed or point at another file
+ * and registers the new ones, parsed right away in {@code eager} mode and on first use otherwise.
+ */
 @Component
 public class OpenApiRegistry {
-  private final Map<String, OpenApi3> cache = new HashMap<>();
+  private static final Logger log = LoggerFactory.getLogger(OpenApiRegistry.class);
 
-  public OpenApiRegistry(RouteConfig cfg){
+  private final Map<String, OpenApi3> cache = new ConcurrentHashMap<>();
+  private final Map<String, String> specPaths = new ConcurrentHashMap<>();
+  private final Map<String, String> hashes = new ConcurrentHashMap<>();
+  private final Map<String, List<Path>> files = new ConcurrentHashMap<>();
+  private final Map<String, Mono<OpenApi3>> loading = new ConcurrentHashMap<>();
+  private final OpenApiSnapshotStore snapshots;
+  private final MeterRegistry meters;
+  private final ApplicationEventPublisher events;
+  private final boolean watch;
+  private final boolean lazy;
+  private SpecFileWatcher watcher; // guarded by this
+
+  public OpenApiRegistry(RouteConfig cfg, MeterRegistry meters, ApplicationEventPublisher events,
+                         @Value("${proxy.openapi.loading:eager}") String loading,
+                         @Value("${proxy.openapi.parallelism:0}") int parallelism,
+                         @Value("${proxy.openapi.snapshot-dir:}") String snapshotDir,
+                         @Value("${proxy.openapi.watch:false}") boolean watch) throws Exception {
+    this.meters = meters;
+    this.events = events;
+    this.watch = watch;
+    this.lazy = "lazy".equalsIgnoreCase(loading);
+    this.snapshots = snapshotDir.isBlank() ? null : new OpenApiSnapshotStore(Path.of(snapshotDir));
     if (cfg.getRoutes()!=null){
       for (RouteDefinition r: cfg.getRoutes()){
         if (r.getOpenApiSpec()!=null){
-          try{
-            OpenApi3 api = new OpenApi3Parser().parse(r.getOpenApiSpec(), true);
-            cache.put(r.getName(), api);
-          }catch(Exception e){
-            throw new RuntimeException("Failed to parse OpenAPI for " + r.getName(), e);
-          }
+          specPaths.put(r.getName(), r.getOpenApiSpec());
+          files.put(r.getName(), filesOf(r.getOpenApiSpec()));
+        }
+      }
+    }
+    if (!lazy) loadAll(parallelism);
+    synchronized (this){
+      // a load that found new references may already have started it
+      if (watch && watcher==null && !specPaths.isEmpty()) watcher = new SpecFileWatcher(specFiles(), this::onSpecFileChanged);
+    }
+  }
+
+  /**
+   * Brings the specs in line with the refreshed routes. Ordered first so that listeners such as
+   * {@link com.example.proxy.validation.OpenApiValidatorCache} see the updated registry.
+   */
+  @EventListener
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  public void onRoutesRefreshed(RouteTableRefreshedEvent event){
+    Map<String, String> next = new HashMap<>();
+    for (RouteDefinition r: event.table().routes()){
+      if (r.getName()!=null && r.getOpenApiSpec()!=null) next.putIfAbsent(r.getName(), r.getOpenApiSpec());
+    }
+    for (String name: Set.copyOf(specPaths.keySet())){
+      if (!Objects.equals(specPaths.get(name), next.get(name))) evict(name);
+    }
+    List<String> added = new ArrayList<>();
+    next.forEach((name, spec) -> {
+      if (specPaths.putIfAbsent(name, spec)==null){
+        files.put(name, filesOf(spec));
+        added.add(name);
+      }
+    });
+    if (!lazy){
+      for (String name: added){
+        try{
+          cache.put(name, load(name, specPaths.get(name)));
+        }catch(RuntimeException e){
+          log.warn("OpenAPI spec for {} not loaded, retrying on first use: {}", name, e.getMessage());
         }
       }
     }
+    rewatch();
+    if (!added.isEmpty()) log.info("Registered OpenAPI specs for {}", added);
+  }
+
+  private void evict(String name){
+    specPaths.remove(name);
+    cache.remove(name);
+    hashes.remove(name);
+    files.remove(name);
+    loading.remove(name);
+  }
+
+  /** Points the watcher at the files the specs reference now. */
+  private synchronized void rewatch(){
+    if (!watch) return;
+    Set<Path> all = specFiles();
+    try{
+      if (watcher!=null) watcher.watch(all);
+      else if (!all.isEmpty()) watcher = new SpecFileWatcher(all, this::onSpecFileChanged);
+    }catch(Exception e){
+      log.warn("Cannot watch OpenAPI spec files: {}", e.getMessage());
+    }
+  }
+
+  private Set<Path> specFiles(){
+    Set<Path> all = new HashSet<>();
+    files.values().forEach(all::addAll);
+    return all;
+  }
+
+  /** The spec and the files it references; just the spec when those cannot be read yet (load reports it). */
+  private static List<Path> filesOf(String spec){
+    try{
+      return OpenApiSnapshotStore.specFiles(Path.of(spec));
+    }catch(Exception e){
+      return List.of(Path.of(spec).toAbsolutePath().normalize());
+    }
+  }
+
+  private void onSpecFileChanged(Path file){
+    files.forEach((name, fs) -> {
+      if (fs.contains(file)) reload(name);
+    });
+  }
+
+  /** Re-parses the route's spec if its content changed and publishes it; returns true if swapped. */
+  public boolean reload(String name){
+    String spec = specPaths.get(name);
+    if (spec==null || !cache.containsKey(name)) return false; // not loaded yet: lazy mode reads the new file
+    try{
+      String hash = OpenApiSnapshotStore.contentHash(OpenApiSnapshotStore.specFiles(Path.of(spec)));
+      if (hash.equals(hashes.get(name))) return false;
+    }catch(Exception e){
+      log.warn("Cannot read OpenAPI spec for {}: {}", name, e.getMessage());
+      return false;
+    }
+    OpenApi3 next;
+    try{
+      next = load(name, spec);
+    }catch(RuntimeException e){
+      log.warn("Keeping previous OpenAPI spec for {}: {}", name, e.getMessage());
+      return false;
+    }
+    cache.put(name, next);
+    events.publishEvent(new OpenApiSpecReloadedEvent(name, next));
+    log.info("Reloaded OpenAPI spec for {}", name);
+    return true;
+  }
+
+  @PreDestroy
+  public synchronized void shutdown() throws Exception {
+    if (watcher!=null) watcher.close();
+  }
+
+  private void loadAll(int parallelism){
+    if (specPaths.isEmpty()) return;
+    int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, specPaths.size()));
+    long start = System.nanoTime();
+    try{
+      List<CompletableFuture<Void>> futures = new ArrayList<>();
+      specPaths.forEach((name, spec) -> futures.add(CompletableFuture.runAsync(() -> cache.put(name, load(name, spec)), pool)));
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    }catch(CompletionException e){
+      throw e.getCause() instanceof RuntimeException re ? re : e;
+    }finally{
+      pool.shutdown();
+    }
+    log.info("Loaded {} OpenAPI specs in {} ms", specPaths.size(), (System.nanoTime()-start)/1_000_000);
   }
 
-  public OpenApi3 get(String name){ return cache.get(name); }
+  /** The parsed spec if there is one, without loading it. */
+  public OpenApi3 ifLoaded(String name){
+    return cache.get(name);
+  }
+
+  /** True when the route has no spec or its spec is parsed, so {@link #get} will not touch the file system. */
+  public boolean isLoaded(String name){
+    return cache.containsKey(name) || !specPaths.containsKey(name);
+  }
+
+  /**
+   * The route's spec, parsed on {@code boundedElastic} if it is not loaded yet; concurrent first requests
+   * share one load. Empty when the route has no spec.
+   */
+  public Mono<OpenApi3> loadAsync(String name){
+    OpenApi3 api = cache.get(name);
+    if (api!=null) return Mono.just(api);
+    String spec = specPaths.get(name);
+    if (spec==null) return Mono.empty();
+    return loading.computeIfAbsent(name, n -> Mono.fromCallable(() -> {
+          OpenApi3 loaded = cache.get(n);
+          if (loaded==null){
+            loaded = load(n, spec);
+            // a route refresh may have dropped or repointed the spec meanwhile
+            if (!spec.equals(specPaths.get(n))) return loaded;
+            OpenApi3 raced = cache.putIfAbsent(n, loaded);
+            if (raced!=null) loaded = raced;
+          }
+          return loaded;
+        })
+        .subscribeOn(Schedulers.boundedElastic())
+        .doFinally(s -> loading.remove(n))
+        .cache());
+  }
+
+  /**
+   * In lazy mode the first call for a route parses its spec on the calling thread; request handling
+   * goes through {@link #loadAsync} first so that never happens on an event loop.
+   */
+  public OpenApi3 get(String name){
+    OpenApi3 api = cache.get(name);
+    if (api!=null) return api;
+    String spec = specPaths.get(name);
+    return spec==null ? null : cache.computeIfAbsent(name, n -> load(n, spec));
+  }
+
+  private OpenApi3 load(String name, String spec){
+    long t0 = System.nanoTime();
+    String source = "parse";
+    try{
+      Path path = Path.of(spec);
+      List<Path> specFiles = OpenApiSnapshotStore.specFiles(path);
+      String hash = OpenApiSnapshotStore.contentHash(specFiles);
+      OpenApi3 api = null;
+      if (snapshots!=null){
+        try{
+          api = snapshots.load(name, path, hash);
+          if (api!=null) source = "snapshot";
+        }catch(Exception e){
+          log.warn("Ignoring unreadable OpenAPI snapshot for {}: {}", name, e.getMessage());
+        }
+      }
+      if (api==null){
+        api = new OpenApi3Parser().parse(path.toFile(), true);
+        if (snapshots!=null) snapshots.store(name, hash, api);
+      }
+      hashes.put(name, hash);
+      if (!specFiles.equals(files.put(name, specFiles))) rewatch();
+      long nanos = System.nanoTime()-t0;
+      Timer.builder("proxy.openapi.load").tag("route", name).tag("source", source).register(meters)
+          .record(nanos, java.util.concurrent.TimeUnit.NANOSECONDS);
+      log.info("OpenAPI spec for {} loaded from {} in {} ms", name, source, nanos/1_000_000);
+      return api;
+    }catch(Exception e){
+      throw new RuntimeException("Failed to parse OpenAPI for " + name, e);
+    }
+  }
 }
@@ -0,0 +1,103 @@
+package com.example.proxy.registry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import org.openapi4j.core.model.v3.OAI3Context;
+import org.openapi4j.core.util.TreeUtil;
+import org.openapi4j.parser.model.v3.OpenApi3;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Binary (Smile) snapshots of specs that already parsed and validated, keyed by the SHA-256 of the
+ * spec file and every file it references. Loading a snapshot skips YAML parsing and openapi4j validation;
+ * only the model binding and $ref context are rebuilt. A spec whose content changed, in any of its files,
+ * simply misses and is parsed again.
+ */
+final class OpenApiSnapshotStore {
+
+  private static final ObjectMapper SMILE = new ObjectMapper(new SmileFactory());
+  private static final ObjectMapper YAML = new YAMLMapper(); // JSON specs parse as YAML too
+
+  private final Path dir;
+
+  OpenApiSnapshotStore(Path dir) throws Exception {
+    this.dir = dir;
+    Files.createDirectories(dir);
+  }
+
+  /** Hash over the contents of {@code files}, in order; pass the result of {@link #specFiles}. */
+  static String contentHash(List<Path> files) throws Exception {
+    MessageDigest md = MessageDigest.getInstance("SHA-256");
+    for (Path f: files){
+      md.update(f.toString().getBytes(StandardCharsets.UTF_8));
+      md.update((byte) 0);
+      md.update(Files.readAllBytes(f));
+    }
+    return HexFormat.of().formatHex(md.digest());
+  }
+
+  /**
+   * The spec followed by every local file it references through {@code $ref}, transitively, as absolute
+   * paths. Remote (http/https) references are not followed.
+   */
+  static List<Path> specFiles(Path spec) throws Exception {
+    Set<Path> seen = new LinkedHashSet<>();
+    Deque<Path> todo = new ArrayDeque<>();
+    todo.add(spec.toAbsolutePath().normalize());
+    while (!todo.isEmpty()){
+      Path file = todo.poll();
+      if (!seen.add(file)) continue;
+      collectRefs(YAML.readTree(file.toFile()), file.getParent(), todo);
+    }
+    return List.copyOf(seen);
+  }
+
+  private static void collectRefs(JsonNode node, Path dir, Deque<Path> todo){
+    if (node==null) return;
+    if (node.isObject()){
+      JsonNode ref = node.get("$ref");
+      if (ref!=null && ref.isTextual()){
+        String target = ref.asText();
+        int hash = target.indexOf('#');
+        String file = hash < 0 ? target : target.substring(0, hash);
+        if (!file.isEmpty() && !file.contains("://")) todo.add(dir.resolve(file).normalize());
+      }
+    }
+    for (Iterator<JsonNode> it = node.elements(); it.hasNext();) collectRefs(it.next(), dir, todo);
+  }
+
+  /** Returns null when there is no snapshot for this content. */
+  OpenApi3 load(String routeName, Path spec, String hash) throws Exception {
+    Path file = snapshotFile(routeName, hash);
+    if (!Files.exists(file)) return null;
+    JsonNode node = SMILE.readTree(file.toFile());
+    OAI3Context context = new OAI3Context(spec.toUri().toURL(), node);
+    OpenApi3 api = TreeUtil.json.convertValue(node, OpenApi3.class);
+    api.setContext(context);
+    return api;
+  }
+
+  void store(String routeName, String hash, OpenApi3 api) throws Exception {
+    Path tmp = Files.createTempFile(dir, routeName, ".tmp");
+    SMILE.writeValue(tmp.toFile(), api.toNode());
+    Files.move(tmp, snapshotFile(routeName, hash), java.nio.file.StandardCopyOption.REPLACE_EXISTING,
+        java.nio.file.StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private Path snapshotFile(String routeName, String hash){
+    return dir.resolve(routeName + "-" + hash + ".smile");
+  }
+}
@@ -0,0 +1,7 @@
+package com.example.proxy.registry;
+
+import org.openapi4j.parser.model.v3.OpenApi3;
+
+/** Published (on the watcher thread) after a route's spec was re-parsed and swapped in. */
+public record OpenApiSpecReloadedEvent(String routeName, OpenApi3 api) {
+}
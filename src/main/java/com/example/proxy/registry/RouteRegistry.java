@@ -0,0 +1,59 @@
+package com.example.proxy.registry;
+
+import com.example.proxy.config.RouteConfig;
+import com.example.proxy.config.RouteDefinition;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link RouteTable}. Readers never lock; a refresh builds a new table
+ * off to the side, publishes it with a single reference swap and then announces it with a
+ * {@link RouteTableRefreshedEvent}. A refresh runs whenever {@code proxy.routes.*} changes in the
+ * environment ({@code POST /actuator/refresh} or any other {@link EnvironmentChangeEvent} source).
+ */
+@Component
+public class RouteRegistry {
+  private final Environment env;
+  private final ApplicationEventPublisher events;
+  private final AtomicReference<RouteTable> table = new AtomicReference<>(RouteTable.EMPTY);
+
+  public RouteRegistry(RouteConfig cfg, Environment env, ApplicationEventPublisher events){
+    this.env = env;
+    this.events = events;
+    table.set(new RouteTable(cfg.getRoutes()));
+  }
+
+  @EventListener
+  public void onEnvironmentChange(EnvironmentChangeEvent event){
+    if (event.getKeys().stream().anyMatch(k -> k.startsWith("proxy.routes"))) refresh();
+  }
+
+  /** Re-binds {@code proxy.routes} from the environment and publishes the result. */
+  public RouteTable refresh(){
+    return refresh(Binder.get(env).bind("proxy.routes", Bindable.listOf(RouteDefinition.class)).orElse(List.of()));
+  }
+
+  public RouteTable refresh(List<RouteDefinition> routes){
+    RouteTable next = new RouteTable(routes);
+    table.set(next);
+    events.publishEvent(new RouteTableRefreshedEvent(next));
+    return next;
+  }
+
+  public RouteTable current(){ return table.get(); }
+
+  /** Resolves by route name first (the {serviceName} path variable), then by request path. */
+  public RouteDefinition resolve(String serviceName, String requestPath){
+    RouteTable t = table.get();
+    RouteDefinition r = t.byName(serviceName);
+    return r!=null ? r : t.match(requestPath);
+  }
+}
@@ -0,0 +1,105 @@
+package com.example.proxy.registry;
+
+import com.example.proxy.config.RouteDefinition;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable route index built once from the configured routes.
+ * Exact lookup by route name is a hash probe; lookup by request path walks a segment trie,
+ * so cost depends on path depth rather than on the number of routes.
+ * Path patterns support literal segments, {@code {var}} / {@code *} for one segment and a trailing {@code **}.
+ */
+public final class RouteTable {
+
+  public static final RouteTable EMPTY = new RouteTable(List.of());
+
+  private final List<RouteDefinition> routes;
+  private final Map<String, RouteDefinition> byName;
+  private final Node root = new Node();
+  private final int size;
+
+  public RouteTable(List<RouteDefinition> routes){
+    Map<String, RouteDefinition> names = new HashMap<>();
+    if (routes!=null){
+      for (RouteDefinition r: routes){
+        if (r.getName()!=null) names.putIfAbsent(r.getName(), r);
+        if (r.getPath()!=null) insert(r);
+      }
+    }
+    this.routes = routes==null ? List.of() : List.copyOf(routes);
+    this.byName = Map.copyOf(names);
+    this.size = names.size();
+  }
+
+  public RouteDefinition byName(String name){ return name==null ? null : byName.get(name); }
+
+  /** Most specific route whose path pattern matches the request path: literal > single-segment > catch-all. */
+  public RouteDefinition match(String path){
+    if (path==null) return null;
+    return match(root, path, skipSlashes(path, 0));
+  }
+
+  public int size(){ return size; }
+
+  public List<RouteDefinition> routes(){ return routes; }
+
+  private void insert(RouteDefinition r){
+    Node n = root;
+    String p = r.getPath();
+    int i = skipSlashes(p, 0);
+    while (i < p.length()){
+      int end = segmentEnd(p, i);
+      String seg = p.substring(i, end);
+      if (seg.equals("**")){
+        if (n.catchAll==null) n.catchAll = r;
+        return;
+      }
+      if (seg.equals("*") || (seg.startsWith("{") && seg.endsWith("}"))){
+        if (n.param==null) n.param = new Node();
+        n = n.param;
+      } else {
+        n = n.literals.computeIfAbsent(seg, k -> new Node());
+      }
+      i = skipSlashes(p, end);
+    }
+    if (n.route==null) n.route = r;
+  }
+
+  private static RouteDefinition match(Node n, String path, int i){
+    if (i >= path.length()){
+      return n.route!=null ? n.route : n.catchAll;
+    }
+    int end = segmentEnd(path, i);
+    int next = skipSlashes(path, end);
+    Node lit = n.literals.isEmpty() ? null : n.literals.get(path.substring(i, end));
+    if (lit!=null){
+      RouteDefinition r = match(lit, path, next);
+      if (r!=null) return r;
+    }
+    if (n.param!=null){
+      RouteDefinition r = match(n.param, path, next);
+      if (r!=null) return r;
+    }
+    return n.catchAll;
+  }
+
+  private static int segmentEnd(String s, int from){
+    int e = s.indexOf('/', from);
+    return e < 0 ? s.length() : e;
+  }
+
+  private static int skipSlashes(String s, int from){
+    while (from < s.length() && s.charAt(from)=='/') from++;
+    return from;
+  }
+
+  private static final class Node {
+    final Map<String, Node> literals = new HashMap<>(4);
+    Node param;
+    RouteDefinition route;
+    RouteDefinition catchAll;
+  }
+}
@@ -0,0 +1,5 @@
+package com.example.proxy.registry;
+
+/** Published after {@link RouteRegistry} swapped in a new table; per-route caches rebuild from it. */
+public record RouteTableRefreshedEvent(RouteTable table) {
+}
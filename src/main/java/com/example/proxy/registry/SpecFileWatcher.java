@@ -0,0 +1,102 @@
+package com.example.proxy.registry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Watches the directories of a set of files and reports changed files on a daemon thread.
+ * Events are debounced so an editor's write-rename sequence triggers a single callback.
+ * The set can be replaced with {@link #watch} while the watcher runs.
+ */
+final class SpecFileWatcher implements AutoCloseable {
+  private static final Logger log = LoggerFactory.getLogger(SpecFileWatcher.class);
+  private static final long DEBOUNCE_MS = 250;
+
+  private final Consumer<Path> onChange;
+  private final WatchService watchService;
+  private final Map<Path, WatchKey> keys = new HashMap<>(); // by directory, guarded by this
+  private final Thread thread;
+  private volatile Set<Path> files = Set.of();
+
+  SpecFileWatcher(Set<Path> files, Consumer<Path> onChange) throws IOException {
+    this.onChange = onChange;
+    this.watchService = FileSystems.getDefault().newWatchService();
+    watch(files);
+    this.thread = new Thread(this::run, "openapi-watch");
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /** Watches exactly {@code next} from now on: new directories are registered, unused ones cancelled. */
+  synchronized void watch(Set<Path> next) throws IOException {
+    Set<Path> dirs = new HashSet<>();
+    for (Path f: next) dirs.add(f.getParent());
+    for (Path d: dirs){
+      if (!keys.containsKey(d)){
+        keys.put(d, d.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY));
+      }
+    }
+    keys.entrySet().removeIf(e -> {
+      if (dirs.contains(e.getKey())) return false;
+      e.getValue().cancel();
+      return true;
+    });
+    this.files = Set.copyOf(next);
+  }
+
+  private void run(){
+    try{
+      while (true){
+        WatchKey key = watchService.take();
+        Set<Path> changed = new HashSet<>();
+        collect(key, changed);
+        Thread.sleep(DEBOUNCE_MS);
+        WatchKey more;
+        while ((more = watchService.poll())!=null) collect(more, changed);
+        for (Path p: changed){
+          try{
+            onChange.accept(p);
+          }catch(RuntimeException e){
+            log.warn("Reload after change of {} failed: {}", p, e.getMessage());
+          }
+        }
+      }
+    }catch(InterruptedException | ClosedWatchServiceException e){
+      // shutting down
+    }
+  }
+
+  private void collect(WatchKey key, Set<Path> changed){
+    Path dir = (Path) key.watchable();
+    Set<Path> files = this.files;
+    for (WatchEvent<?> ev: key.pollEvents()){
+      if (ev.kind()==StandardWatchEventKinds.OVERFLOW){
+        for (Path f: files) if (f.getParent().equals(dir)) changed.add(f);
+        continue;
+      }
+      Path p = dir.resolve((Path) ev.context());
+      if (files.contains(p)) changed.add(p);
+    }
+    key.reset();
+  }
+
+  @Override
+  public void close() throws IOException {
+    watchService.close();
+    thread.interrupt();
+  }
+}
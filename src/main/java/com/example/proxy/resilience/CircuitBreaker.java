@@ -0,0 +1,94 @@
+package com.example.proxy.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Count-based circuit breaker. CLOSED trips to OPEN when the failure rate over the last
+ * {@code window} calls reaches the threshold; OPEN rejects until {@code openNanos} has passed, then
+ * HALF_OPEN admits a few probes whose outcome closes or re-opens the circuit.
+ */
+final class CircuitBreaker {
+  enum State { CLOSED, HALF_OPEN, OPEN }
+
+  private final boolean[] outcomes; // true = failure; guarded by this
+  private final int minimumCalls;
+  private final double threshold;
+  private final long openNanos;
+  private final int probes;
+
+  private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+  private final AtomicInteger probesIssued = new AtomicInteger();
+  private final AtomicInteger probeSuccesses = new AtomicInteger();
+  private volatile long openUntil;
+  private int next, calls, failures; // guarded by this
+
+  CircuitBreaker(int window, int minimumCalls, double failureRatePercent, long openNanos, int probes){
+    this.outcomes = new boolean[Math.max(1, window)];
+    this.minimumCalls = minimumCalls;
+    this.threshold = failureRatePercent / 100.0;
+    this.openNanos = openNanos;
+    this.probes = Math.max(1, probes);
+  }
+
+  boolean allowRequest(long now){
+    State s = state.get();
+    if (s==State.CLOSED) return true;
+    if (s==State.OPEN){
+      if (now - openUntil < 0) return false;
+      if (state.compareAndSet(State.OPEN, State.HALF_OPEN)){
+        probesIssued.set(0);
+        probeSuccesses.set(0);
+      }
+    }
+    if (probesIssued.incrementAndGet() <= probes) return true;
+    // probes that were cancelled or rejected never report back: start a new probe round after a while
+    if (now - openUntil >= openNanos){
+      openUntil = now;
+      probesIssued.set(1);
+      probeSuccesses.set(0);
+      return true;
+    }
+    return false;
+  }
+
+  void onResult(boolean failure, long now){
+    State s = state.get();
+    if (s==State.HALF_OPEN){
+      if (failure){
+        open(now);
+      } else if (probeSuccesses.incrementAndGet() >= probes && state.compareAndSet(State.HALF_OPEN, State.CLOSED)){
+        reset();
+      }
+      return;
+    }
+    if (s!=State.CLOSED) return;
+    boolean trip;
+    synchronized (this){
+      if (calls==outcomes.length){
+        if (outcomes[next]) failures--;
+      } else {
+        calls++;
+      }
+      outcomes[next] = failure;
+      if (failure) failures++;
+      next = (next + 1) % outcomes.length;
+      trip = calls >= minimumCalls && (double) failures / calls >= threshold;
+    }
+    if (trip) open(now);
+  }
+
+  private void open(long now){
+    openUntil = now + openNanos;
+    state.set(State.OPEN);
+    reset();
+  }
+
+  private synchronized void reset(){
+    next = 0;
+    calls = 0;
+    failures = 0;
+  }
+
+  State state(){ return state.get(); }
+}
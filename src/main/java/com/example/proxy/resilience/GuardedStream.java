@@ -0,0 +1,14 @@
+package com.example.proxy.resilience;
+
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+
+/**
+ * A streamed response admitted by {@link UpstreamGuard#protectStream}. The slot is freed when the body
+ * terminates; {@link #release()} frees it when the exchange ended without the body ever being subscribed
+ * (client gone after the headers, response write failed). Calling it after the body ended does nothing.
+ */
+public record GuardedStream<T>(ResponseEntity<Flux<T>> response, Runnable onEnd) {
+
+  public void release(){ onEnd.run(); }
+}
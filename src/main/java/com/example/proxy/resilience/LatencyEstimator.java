@@ -0,0 +1,78 @@
+package com.example.proxy.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free, approximate latency percentile: counts per log-spaced bucket (about 19% wide, 50us..~45s),
+ * halved every {@code DECAY_EVERY} samples so the estimate follows the recent past. The percentile is
+ * recomputed at most every {@code RECOMPUTE_EVERY} samples and read as a plain volatile. Attempts that were
+ * cancelled (a losing hedge or primary) enter through {@link #recordAtLeast}, so slow calls are not left out.
+ */
+final class LatencyEstimator {
+  private static final int BUCKETS = 80;
+  private static final double BASE_NANOS = 50_000;
+  private static final double GROWTH = 1.19;
+  private static final double LOG_GROWTH = Math.log(GROWTH);
+  private static final int MIN_SAMPLES = 100;
+  private static final int RECOMPUTE_EVERY = 64;
+  private static final int DECAY_EVERY = 4096;
+
+  private final double percentile;
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final AtomicLong samples = new AtomicLong();
+  private volatile long estimateNanos = -1;
+
+  LatencyEstimator(double percentile){
+    this.percentile = Math.min(100, Math.max(0, percentile));
+  }
+
+  void record(long nanos){
+    counts.incrementAndGet(bucket(nanos));
+    long n = samples.incrementAndGet();
+    if (n % DECAY_EVERY==0) decay();
+    if (n >= MIN_SAMPLES && n % RECOMPUTE_EVERY==0) estimateNanos = compute();
+  }
+
+  /**
+   * An attempt cancelled after {@code nanos} would have taken at least that long. For the percentile that only
+   * tells something when it is already above the current estimate, so shorter ones are ignored.
+   */
+  void recordAtLeast(long nanos){
+    long est = estimateNanos;
+    if (est >= 0 && nanos > est) record(nanos);
+  }
+
+  /** Current estimate, or -1 until enough samples were seen. */
+  long estimateNanos(){ return estimateNanos; }
+
+  private long compute(){
+    long total = 0;
+    for (int i=0; i<BUCKETS; i++) total += counts.get(i);
+    if (total==0) return -1;
+    long rank = (long) Math.ceil(total * percentile / 100);
+    long seen = 0;
+    for (int i=0; i<BUCKETS; i++){
+      seen += counts.get(i);
+      if (seen >= rank) return upperBound(i);
+    }
+    return upperBound(BUCKETS - 1);
+  }
+
+  private void decay(){
+    for (int i=0; i<BUCKETS; i++){
+      long c;
+      do { c = counts.get(i); } while (!counts.compareAndSet(i, c, c >> 1));
+    }
+  }
+
+  private static int bucket(long nanos){
+    if (nanos <= BASE_NANOS) return 0;
+    int b = (int) (Math.log(nanos / BASE_NANOS) / LOG_GROWTH) + 1;
+    return Math.min(b, BUCKETS - 1);
+  }
+
+  private static long upperBound(int bucket){
+    return (long) (BASE_NANOS * Math.pow(GROWTH, bucket));
+  }
+}
@@ -0,0 +1,63 @@
+package com.example.proxy.resilience;
+
+import com.example.proxy.config.RetryBudgetProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global retry budget. Every upstream call deposits {@code percent/100} of a token, every retry or
+ * hedge withdraws a whole one, so extra attempts stay a bounded fraction of real traffic and dry up
+ * when most calls fail. A small time-based reserve ({@code minPerSecond}) keeps low-traffic routes usable.
+ * Both halves are a single CAS on an {@link AtomicLong}.
+ */
+@Component
+public class RetryBudget {
+  private static final long UNIT = 1000; // balance is kept in milli-tokens
+
+  private final long deposit;
+  private final long maxBalance;
+  private final long reserveIntervalNanos;
+  private final AtomicLong balance = new AtomicLong();
+  private final AtomicLong reserveTat = new AtomicLong(Long.MIN_VALUE);
+
+  public RetryBudget(RetryBudgetProperties props, MeterRegistry meters){
+    this.deposit = Math.max(0L, Math.round(props.getPercent() * UNIT / 100));
+    this.maxBalance = Math.max(1L, props.getMaxBalance()) * UNIT;
+    this.reserveIntervalNanos = props.getMinPerSecond() > 0
+        ? Math.max(1L, (long) (1_000_000_000L / props.getMinPerSecond())) : 0;
+    Gauge.builder("proxy.retry.budget.balance", balance, b -> b.get() / (double) UNIT).register(meters);
+  }
+
+  /** Called once per original (non-retry) upstream call. */
+  public void onRequest(){
+    while (true){
+      long b = balance.get();
+      if (b >= maxBalance) return;
+      if (balance.compareAndSet(b, Math.min(maxBalance, b + deposit))) return;
+    }
+  }
+
+  /** Takes one token for a retry or hedge; false when the budget is exhausted. */
+  public boolean tryWithdraw(){
+    while (true){
+      long b = balance.get();
+      if (b < UNIT) break;
+      if (balance.compareAndSet(b, b - UNIT)) return true;
+    }
+    return tryReserve(System.nanoTime());
+  }
+
+  private boolean tryReserve(long now){
+    if (reserveIntervalNanos==0) return false;
+    while (true){
+      long current = reserveTat.get();
+      long base = current==Long.MIN_VALUE ? now - reserveIntervalNanos : current;
+      if (base > now) return false;
+      long next = Math.max(base, now - reserveIntervalNanos) + reserveIntervalNanos;
+      if (reserveTat.compareAndSet(current, next)) return true;
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package com.example.proxy.resilience;
+
+import com.example.proxy.config.UpstreamGuardProperties;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Concurrency limit plus circuit breaker for one upstream target. Slots are taken at subscription,
+ * so every (re)subscription of the protected call is admitted and accounted separately.
+ */
+public final class UpstreamGuard {
+  private final VegasLimiter limiter;
+  private final CircuitBreaker breaker;
+
+  UpstreamGuard(UpstreamGuardProperties p){
+    this.limiter = new VegasLimiter(p.getInitialLimit(), p.getMinLimit(), p.getMaxLimit(), p.getRttProbeInterval());
+    this.breaker = new CircuitBreaker(p.getSlidingWindow(), p.getMinimumCalls(), p.getFailureRateThreshold(),
+        p.getOpenDuration().toNanos(), p.getHalfOpenProbes());
+  }
+
+  public <T> Mono<T> protect(Mono<T> call){
+    return Mono.defer(() -> {
+      long start = System.nanoTime();
+      if (!breaker.allowRequest(start)) return Mono.error(UpstreamUnavailableException.CIRCUIT_OPEN);
+      if (!limiter.tryAcquire()) return Mono.error(UpstreamUnavailableException.LIMIT_REACHED);
+      AtomicBoolean done = new AtomicBoolean();
+      return call
+          .doOnSuccess(v -> {
+            if (done.compareAndSet(false, true)) complete(start, false);
+          })
+          .doOnError(e -> {
+            if (done.compareAndSet(false, true)) complete(start, isFailure(e));
+          })
+          .doOnCancel(() -> {
+            if (done.compareAndSet(false, true)) limiter.release();
+          });
+    });
+  }
+
+  /**
+   * For streamed responses, which arrive with any status instead of failing on 5xx. A 5xx status or a body
+   * that ends in error counts as a failure, and the slot is held until the body terminates, so the limit
+   * covers the whole transfer. The limiter still samples the time to response headers, which is what
+   * upstream queueing affects. The caller must subscribe to the body (or cancel it), or call
+   * {@link GuardedStream#release()} when the exchange ends, to free the slot.
+   */
+  public <T> Mono<GuardedStream<T>> protectStream(Mono<ResponseEntity<Flux<T>>> call){
+    return Mono.defer(() -> {
+      long start = System.nanoTime();
+      if (!breaker.allowRequest(start)) return Mono.error(UpstreamUnavailableException.CIRCUIT_OPEN);
+      if (!limiter.tryAcquire()) return Mono.error(UpstreamUnavailableException.LIMIT_REACHED);
+      AtomicBoolean done = new AtomicBoolean();
+      return call
+          .map(resp -> {
+            long rtt = System.nanoTime() - start;
+            boolean failure = resp.getStatusCode().is5xxServerError();
+            Flux<T> body = resp.getBody()==null ? Flux.<T>empty() : resp.getBody();
+            Flux<T> tracked = body
+                .doOnComplete(() -> {
+                  if (done.compareAndSet(false, true)) completeAfter(rtt, failure);
+                })
+                .doOnError(e -> {
+                  if (done.compareAndSet(false, true)) completeAfter(rtt, true);
+                })
+                .doOnCancel(() -> {
+                  if (done.compareAndSet(false, true)) limiter.release();
+                });
+            return new GuardedStream<>(new ResponseEntity<>(tracked, resp.getHeaders(), resp.getStatusCode()), () -> {
+              if (done.compareAndSet(false, true)) limiter.release();
+            });
+          })
+          .doOnError(e -> {
+            if (done.compareAndSet(false, true)) complete(start, isFailure(e));
+          })
+          .doOnCancel(() -> {
+            if (done.compareAndSet(false, true)) limiter.release();
+          });
+    });
+  }
+
+  private void complete(long start, boolean failure){
+    completeAfter(System.nanoTime() - start, failure);
+  }
+
+  private void completeAfter(long rttNanos, boolean failure){
+    limiter.onComplete(rttNanos, !failure);
+    breaker.onResult(failure, System.nanoTime());
+  }
+
+  /** 4xx are the caller's problem and say nothing about upstream health. */
+  static boolean isFailure(Throwable e){
+    return !(e instanceof WebClientResponseException w) || w.getStatusCode().is5xxServerError();
+  }
+
+  public int limit(){ return limiter.limit(); }
+  public int inflight(){ return limiter.inflight(); }
+  public int circuitState(){ return breaker.state().ordinal(); }
+}
@@ -0,0 +1,49 @@
+package com.example.proxy.resilience;
+
+import com.example.proxy.config.UpstreamGuardProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link UpstreamGuard} per target URL, with gauges {@code proxy.upstream.concurrency.limit},
+ * {@code proxy.upstream.inflight} and {@code proxy.upstream.circuit.state} (0 closed, 1 half-open, 2 open).
+ */
+@Component
+public class UpstreamGuards {
+  private final UpstreamGuardProperties props;
+  private final MeterRegistry meters;
+  private final ConcurrentHashMap<String, UpstreamGuard> guards = new ConcurrentHashMap<>();
+
+  public UpstreamGuards(UpstreamGuardProperties props, MeterRegistry meters){
+    this.props = props;
+    this.meters = meters;
+  }
+
+  public <T> Mono<T> protect(String target, Mono<T> call){
+    return props.isEnabled() ? forTarget(target).protect(call) : call;
+  }
+
+  /** See {@link UpstreamGuard#protectStream}. */
+  public <T> Mono<GuardedStream<T>> protectStream(String target, Mono<ResponseEntity<Flux<T>>> call){
+    return props.isEnabled() ? forTarget(target).protectStream(call) : call.map(r -> new GuardedStream<>(r, () -> {}));
+  }
+
+  public UpstreamGuard forTarget(String target){
+    UpstreamGuard g = guards.get(target);
+    return g!=null ? g : guards.computeIfAbsent(target, this::create);
+  }
+
+  private UpstreamGuard create(String target){
+    UpstreamGuard g = new UpstreamGuard(props);
+    Gauge.builder("proxy.upstream.concurrency.limit", g, UpstreamGuard::limit).tag("target", target).register(meters);
+    Gauge.builder("proxy.upstream.inflight", g, UpstreamGuard::inflight).tag("target", target).register(meters);
+    Gauge.builder("proxy.upstream.circuit.state", g, UpstreamGuard::circuitState).tag("target", target).register(meters);
+    return g;
+  }
+}
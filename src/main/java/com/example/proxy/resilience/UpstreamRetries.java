@@ -0,0 +1,104 @@
+package com.example.proxy.resilience;
+
+import com.example.proxy.config.RetryPolicyProperties;
+import com.example.proxy.config.RouteDefinition;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies a route's {@link RetryPolicyProperties} to an idempotent upstream call. The call must be
+ * re-subscribable (each subscription is one attempt, e.g. a guarded WebClient exchange). Retries happen
+ * only on connect/IO failures and 5xx, never on {@link UpstreamUnavailableException}, so an open
+ * breaker or exhausted limit is not amplified. Extra attempts are counted as
+ * {@code proxy.upstream.extra.attempts{route,kind,result}}. The {@link RetryBudget} is credited once per
+ * subscription of the returned call, so callers that join a coalesced call do not add to it.
+ */
+@Component
+public class UpstreamRetries {
+  private final RetryBudget budget;
+  private final MeterRegistry meters;
+  private final ConcurrentHashMap<String, LatencyEstimator> latencies = new ConcurrentHashMap<>();
+
+  public UpstreamRetries(RetryBudget budget, MeterRegistry meters){
+    this.budget = budget;
+    this.meters = meters;
+  }
+
+  public <T> Mono<T> apply(RouteDefinition route, Mono<T> attempt){
+    Mono<T> call = withPolicy(route, attempt);
+    return Mono.defer(() -> {
+      budget.onRequest();
+      return call;
+    });
+  }
+
+  private <T> Mono<T> withPolicy(RouteDefinition route, Mono<T> attempt){
+    RetryPolicyProperties p = route.getRetry();
+    if (p==null) return attempt;
+
+    LatencyEstimator latency = latencies.computeIfAbsent(route.getName(), k -> new LatencyEstimator(p.getHedgePercentile()));
+    Mono<T> timed = Mono.defer(() -> {
+      long start = System.nanoTime();
+      return attempt
+          .doOnSuccess(v -> latency.record(System.nanoTime() - start))
+          .doOnCancel(() -> latency.recordAtLeast(System.nanoTime() - start));
+    });
+    Mono<T> call = p.isHedge() ? hedged(route, p, latency, timed) : timed;
+    if (p.getMaxRetries() <= 0) return call;
+
+    return call.retryWhen(Retry.backoff(p.getMaxRetries(), p.getBackoff())
+        .filter(e -> isRetryable(e) && withdraw(route, "retry"))
+        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+  }
+
+  private <T> Mono<T> hedged(RouteDefinition route, RetryPolicyProperties p, LatencyEstimator latency, Mono<T> timed){
+    return Mono.defer(() -> {
+      // the hedge only fires while the primary is still outstanding; a failed primary is left to retryWhen
+      Sinks.Empty<Void> primaryDone = Sinks.empty();
+      Mono<T> primary = timed.doOnTerminate(primaryDone::tryEmitEmpty);
+      Mono<T> hedge = Mono.delay(hedgeDelay(p, latency))
+          .or(primaryDone.asMono().then(Mono.<Long>empty()))
+          .filter(t -> withdraw(route, "hedge"))
+          .flatMap(t -> timed);
+      // first value wins and the loser is cancelled; on failure surface the primary's error
+      return Mono.firstWithValue(primary, hedge).onErrorMap(NoSuchElementException.class, UpstreamRetries::primaryError);
+    });
+  }
+
+  private static Duration hedgeDelay(RetryPolicyProperties p, LatencyEstimator latency){
+    long est = latency.estimateNanos();
+    long min = p.getHedgeMinDelay().toNanos();
+    long max = p.getHedgeMaxDelay().toNanos();
+    return Duration.ofNanos(est < 0 ? max : Math.min(max, Math.max(min, est)));
+  }
+
+  private boolean withdraw(RouteDefinition route, String kind){
+    boolean ok = budget.tryWithdraw();
+    meters.counter("proxy.upstream.extra.attempts", "route", route.getName(), "kind", kind,
+        "result", ok ? "issued" : "budget_exhausted").increment();
+    return ok;
+  }
+
+  static boolean isRetryable(Throwable e){
+    if (e instanceof WebClientResponseException w) return w.getStatusCode().is5xxServerError();
+    return e instanceof WebClientRequestException;
+  }
+
+  private static Throwable primaryError(NoSuchElementException e){
+    if (e.getCause()==null) return e;
+    for (Throwable t: Exceptions.unwrapMultiple(e.getCause())){
+      if (!(t instanceof NoSuchElementException)) return t;
+    }
+    return e;
+  }
+}
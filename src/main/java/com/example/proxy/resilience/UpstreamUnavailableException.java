@@ -0,0 +1,9 @@
+package com.example.proxy.resilience;
+
+/** Signals a call rejected locally by the upstream guard. Stackless and shared. */
+public final class UpstreamUnavailableException extends RuntimeException {
+  static final UpstreamUnavailableException CIRCUIT_OPEN = new UpstreamUnavailableException("Upstream circuit is open");
+  static final UpstreamUnavailableException LIMIT_REACHED = new UpstreamUnavailableException("Upstream concurrency limit reached");
+
+  private UpstreamUnavailableException(String msg){ super(msg, null, false, false); }
+}
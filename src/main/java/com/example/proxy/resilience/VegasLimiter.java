@@ -0,0 +1,67 @@
+package com.example.proxy.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TCP-Vegas style concurrency limit. The queue estimate {@code limit * (1 - rttNoLoad / rtt)} is kept
+ * between alpha and beta (both scaled by log10 of the limit): a short queue grows the limit by one,
+ * a long one shrinks it. The no-load RTT is the minimum RTT seen, re-estimated every probe interval
+ * so a permanently slower upstream does not pin the limit at its floor.
+ */
+final class VegasLimiter {
+  private final int minLimit;
+  private final int maxLimit;
+  private final int probeInterval;
+  private final AtomicInteger inflight = new AtomicInteger();
+  private volatile int limit;
+
+  // guarded by this
+  private long rttNoLoad = Long.MAX_VALUE;
+  private long windowMin = Long.MAX_VALUE;
+  private int samples;
+
+  VegasLimiter(int initialLimit, int minLimit, int maxLimit, int probeInterval){
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.probeInterval = Math.max(1, probeInterval);
+    this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+  }
+
+  boolean tryAcquire(){
+    if (inflight.incrementAndGet() > limit){
+      inflight.decrementAndGet();
+      return false;
+    }
+    return true;
+  }
+
+  void release(){ inflight.decrementAndGet(); }
+
+  /** Releases the slot and, for successful calls, adapts the limit to the observed RTT. */
+  void onComplete(long rttNanos, boolean sample){
+    inflight.decrementAndGet();
+    if (!sample) return;
+    synchronized (this){
+      windowMin = Math.min(windowMin, rttNanos);
+      if (++samples >= probeInterval){
+        rttNoLoad = windowMin;
+        windowMin = Long.MAX_VALUE;
+        samples = 0;
+      } else if (rttNanos < rttNoLoad){
+        rttNoLoad = rttNanos;
+      }
+      int current = limit;
+      double queue = current * (1.0 - (double) rttNoLoad / rttNanos);
+      double log = Math.max(1.0, Math.log10(current));
+      if (queue < 3 * log){
+        current = Math.min(maxLimit, current + 1);
+      } else if (queue > 6 * log){
+        current = Math.max(minLimit, current - 1);
+      }
+      limit = current;
+    }
+  }
+
+  int limit(){ return limit; }
+  int inflight(){ return inflight.get(); }
+}
@@ -0,0 +1,119 @@
+package com.example.proxy.security;
+
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509ExtendedKeyManager;
+import javax.net.ssl.X509ExtendedTrustManager;
+import java.io.FileInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.util.Enumeration;
+
+/**
+ * One client identity (keystore + truststore). Its {@link SslContext} is built once around
+ * reloading key/trust managers, so rotating the files never replaces the context. A swap also empties the
+ * context's session cache, since a resumed session skips the handshake that would present the new
+ * certificate and apply the new trust decision.
+ */
+public final class MtlsIdentity {
+
+  private final String name;
+  private final MtlsProperties.Store keystore;
+  private final MtlsProperties.Store truststore;
+  private final ReloadingKeyManager keyManager;
+  private final ReloadingTrustManager trustManager;
+  private final SslContext sslContext;
+  private long keystoreModified;
+  private long truststoreModified;
+
+  MtlsIdentity(String name, MtlsProperties.Store keystore, MtlsProperties.Store truststore, MtlsProperties props) throws Exception {
+    this.name = name;
+    this.keystore = keystore;
+    this.truststore = truststore;
+    this.keystoreModified = lastModified(keystore.getPath());
+    this.truststoreModified = lastModified(truststore.getPath());
+    this.keyManager = new ReloadingKeyManager(loadKeyManager(keystore));
+    this.trustManager = new ReloadingTrustManager(loadTrustManager(truststore));
+    this.sslContext = SslContextBuilder.forClient()
+        .sslProvider(MtlsWebClientConfig.resolveProvider(props.getProvider()))
+        .keyManager(keyManager)
+        .trustManager(trustManager)
+        .sessionCacheSize(props.getSessionCacheSize())
+        .sessionTimeout(props.getSessionTimeoutSeconds())
+        .build();
+  }
+
+  public String name(){ return name; }
+
+  public SslContext sslContext(){ return sslContext; }
+
+  /**
+   * Reloads key material whose file changed; returns true if anything was swapped. Every changed store is
+   * read before either manager is swapped, so a failed read leaves both on the current generation (and the
+   * next poll tries again).
+   */
+  synchronized boolean reloadIfChanged() throws Exception {
+    long km = lastModified(keystore.getPath());
+    long tm = lastModified(truststore.getPath());
+    X509ExtendedKeyManager nextKeys = km!=keystoreModified ? loadKeyManager(keystore) : null;
+    X509ExtendedTrustManager nextTrust = tm!=truststoreModified ? loadTrustManager(truststore) : null;
+    if (nextKeys==null && nextTrust==null) return false;
+
+    if (nextKeys!=null){
+      keyManager.swap(nextKeys);
+      keystoreModified = km;
+    }
+    if (nextTrust!=null){
+      trustManager.swap(nextTrust);
+      truststoreModified = tm;
+    }
+    invalidateSessions();
+    return true;
+  }
+
+  private void invalidateSessions(){
+    SSLSessionContext sessions = sslContext.sessionContext();
+    for (Enumeration<byte[]> ids = sessions.getIds(); ids.hasMoreElements();){
+      SSLSession s = sessions.getSession(ids.nextElement());
+      if (s!=null) s.invalidate();
+    }
+  }
+
+  private static X509ExtendedKeyManager loadKeyManager(MtlsProperties.Store store) throws Exception {
+    KeyStore ks = KeyStore.getInstance(System.getProperty("javax.net.ssl.keyStoreType", "PKCS12"));
+    try (FileInputStream fis = new FileInputStream(store.getPath())) {
+      ks.load(fis, store.getPassword().toCharArray());
+    }
+    KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+    kmf.init(ks, store.getPassword().toCharArray());
+    for (KeyManager m: kmf.getKeyManagers()){
+      if (m instanceof X509ExtendedKeyManager x) return x;
+    }
+    throw new IllegalStateException("No X509 key manager for " + store.getPath());
+  }
+
+  private static X509ExtendedTrustManager loadTrustManager(MtlsProperties.Store store) throws Exception {
+    KeyStore ts = KeyStore.getInstance(System.getProperty("javax.net.ssl.trustStoreType", "JKS"));
+    try (FileInputStream fis = new FileInputStream(store.getPath())) {
+      ts.load(fis, store.getPassword().toCharArray());
+    }
+    TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+    tmf.init(ts);
+    for (TrustManager m: tmf.getTrustManagers()){
+      if (m instanceof X509ExtendedTrustManager x) return x;
+    }
+    throw new IllegalStateException("No X509 trust manager for " + store.getPath());
+  }
+
+  private static long lastModified(String path) throws Exception {
+    return Files.getLastModifiedTime(Path.of(path)).toMillis();
+  }
+}
@@ -0,0 +1,79 @@
+package com.example.proxy.security;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client identities by name. Key and trust stores are polled for changes off the request path;
+ * changed material is swapped into the identity's managers, its TLS sessions are invalidated and an
+ * {@link MtlsIdentityReloadedEvent} retires the pools that carry connections made with the old material.
+ */
+@Component
+public class MtlsIdentityRegistry {
+  private static final Logger log = LoggerFactory.getLogger(MtlsIdentityRegistry.class);
+
+  private final Map<String, MtlsIdentity> identities;
+  private final ScheduledExecutorService watcher;
+  private final ApplicationEventPublisher events;
+
+  public MtlsIdentityRegistry(MtlsProperties props, ApplicationEventPublisher events) throws Exception {
+    this.events = events;
+    Map<String, MtlsIdentity> m = new HashMap<>();
+    m.put(MtlsProperties.DEFAULT_IDENTITY,
+        new MtlsIdentity(MtlsProperties.DEFAULT_IDENTITY, props.getKeystore(), props.getTruststore(), props));
+    for (Map.Entry<String, MtlsProperties.Identity> e: props.getIdentities().entrySet()){
+      MtlsProperties.Identity id = e.getValue();
+      MtlsProperties.Store ts = id.getTruststore()!=null ? id.getTruststore() : props.getTruststore();
+      m.put(e.getKey(), new MtlsIdentity(e.getKey(), id.getKeystore(), ts, props));
+    }
+    this.identities = Map.copyOf(m);
+
+    long every = props.getReloadInterval().toMillis();
+    if (every > 0){
+      watcher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "mtls-reload");
+        t.setDaemon(true);
+        return t;
+      });
+      watcher.scheduleWithFixedDelay(this::reloadChanged, every, every, TimeUnit.MILLISECONDS);
+    } else {
+      watcher = null;
+    }
+  }
+
+  /** Returns the named identity; null or blank selects the default one. */
+  public MtlsIdentity get(String name){
+    String key = name==null || name.isBlank() ? MtlsProperties.DEFAULT_IDENTITY : name;
+    MtlsIdentity id = identities.get(key);
+    if (id==null) throw new IllegalArgumentException("Unknown mTLS client identity: " + key);
+    return id;
+  }
+
+  void reloadChanged(){
+    for (MtlsIdentity id: identities.values()){
+      try{
+        if (id.reloadIfChanged()){
+          log.info("Reloaded mTLS key material for identity {}", id.name());
+          events.publishEvent(new MtlsIdentityReloadedEvent(id.name()));
+        }
+      }catch(Exception e){
+        // keep serving with the previous material; a half-written file is retried on the next poll
+        log.warn("Failed to reload mTLS identity {}: {}", id.name(), e.getMessage());
+      }
+    }
+  }
+
+  @PreDestroy
+  public void shutdown(){
+    if (watcher!=null) watcher.shutdownNow();
+  }
+}
@@ -0,0 +1,5 @@
+package com.example.proxy.security;
+
+/** Published (on the reload thread) after an identity's key or trust material was swapped. */
+public record MtlsIdentityReloadedEvent(String identity) {
+}
@@ -0,0 +1,58 @@
+package com.example.proxy.security;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * {@code security.mtls.*}: the default client identity plus named identities that routes can select
+ * with {@code clientIdentity}. A named identity without its own truststore uses the default one.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "security.mtls")
+public class MtlsProperties {
+  public static final String DEFAULT_IDENTITY = "default";
+
+  private Store keystore = new Store();
+  private Store truststore = new Store();
+  private String provider = "JDK"; // JDK | OPENSSL
+  private long sessionCacheSize; // 0 = provider default
+  private long sessionTimeoutSeconds;
+  private Duration reloadInterval = Duration.ofSeconds(30); // 0 disables reloading
+  private Map<String, Identity> identities = new HashMap<>();
+
+  public Store getKeystore(){return keystore;}
+  public void setKeystore(Store s){this.keystore=s;}
+  public Store getTruststore(){return truststore;}
+  public void setTruststore(Store s){this.truststore=s;}
+  public String getProvider(){return provider;}
+  public void setProvider(String p){this.provider=p;}
+  public long getSessionCacheSize(){return sessionCacheSize;}
+  public void setSessionCacheSize(long s){this.sessionCacheSize=s;}
+  public long getSessionTimeoutSeconds(){return sessionTimeoutSeconds;}
+  public void setSessionTimeoutSeconds(long s){this.sessionTimeoutSeconds=s;}
+  public Duration getReloadInterval(){return reloadInterval;}
+  public void setReloadInterval(Duration d){this.reloadInterval=d;}
+  public Map<String, Identity> getIdentities(){return identities;}
+  public void setIdentities(Map<String, Identity> i){this.identities=i;}
+
+  public static class Store {
+    private String path;
+    private String password;
+    public String getPath(){return path;}
+    public void setPath(String p){this.path=p;}
+    public String getPassword(){return password;}
+    public void setPassword(String p){this.password=p;}
+  }
+
+  public static class Identity {
+    private Store keystore = new Store();
+    private Store truststore;
+    public Store getKeystore(){return keystore;}
+    public void setKeystore(Store s){this.keystore=s;}
+    public Store getTruststore(){return truststore;}
+    public void setTruststore(Store s){this.truststore=s;}
+  }
+}
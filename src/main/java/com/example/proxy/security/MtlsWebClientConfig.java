@@ -1,54 +1,31 @@
 package com.example.proxy.security;
 
-import io.netty.handler.ssl.SslContextBuilder;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.client.reactive.ReactorClientHttpConnector;
-import org.springframework.web.reactive.function.client.WebClient;
-import reactor.netty.http.client.HttpClient;
-
-import javax.net.ssl.KeyManagerFactory;
-import javax.net.ssl.TrustManagerFactory;
-import java.io.FileInputStream;
-import java.security.KeyStore;
-
-@Configuration
-public class MtlsWebClientConfig {
-
-  @Value("${security.mtls.keystore.path}")
-  private String keyStorePath;
-  @Value("${security.mtls.keystore.password}")
-  private String keyStorePassword;
-  @Value("${security.mtls.truststore.path}")
-  private String trustStorePath;
-  @Value("${security.mtls.truststore.password}")
-  private String trustStorePassword;
-
-  @Bean
-  public WebClient webClient() throws Exception {
-    KeyStore ks = KeyStore.getInstance(System.getProperty("javax.net.ssl.keyStoreType", "PKCS12"));
-    try (FileInputStream fis = new FileInputStream(keyStorePath)) {
-      ks.load(fis, keyStorePassword.toCharArray());
+import io.netty.handler.ssl.OpenSsl;
+import io.netty.handler.ssl.SslProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * SSL provider selection for the mTLS contexts built by {@link MtlsIdentity}. Upstream clients and their
+ * pools come from {@link com.example.proxy.client.UpstreamClientFactory}; there is no shared client bean.
+ */
+public final class MtlsWebClientConfig {
+
+  private static final Logger log = LoggerFactory.getLogger(MtlsWebClientConfig.class);
+
+  private MtlsWebClientConfig() {}
+
+  /**
+   * OPENSSL uses netty-tcnative (BoringSSL) when it is on the classpath and loads; otherwise falls back to JDK.
+   * Both providers keep a client session cache, so reconnects to the same host resume the TLS session.
+   */
+  static SslProvider resolveProvider(String name) {
+    if (!"OPENSSL".equalsIgnoreCase(name)) return SslProvider.JDK;
+    if (OpenSsl.isAvailable() && OpenSsl.supportsKeyManagerFactory()) {
+      log.info("mTLS using native {}", OpenSsl.versionString());
+      return SslProvider.OPENSSL;
     }
-    KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
-    kmf.init(ks, keyStorePassword.toCharArray());
-
-    KeyStore ts = KeyStore.getInstance(System.getProperty("javax.net.ssl.trustStoreType", "JKS"));
-    try (FileInputStream fis = new FileInputStream(trustStorePath)) {
-      ts.load(fis, trustStorePassword.toCharArray());
-    }
-    TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
-    tmf.init(ts);
-
-    var sslCtx = SslContextBuilder.forClient()
-            .keyManager(kmf)
-            .trustManager(tmf)
-            .build();
-
-    HttpClient httpClient = HttpClient.create().secure(spec -> spec.sslContext(sslCtx));
-    return WebClient.builder()
-            .clientConnector(new ReactorClientHttpConnector(httpClient))
-            .build();
+    log.warn("security.mtls.provider=OPENSSL but netty-tcnative is unavailable, falling back to JDK", OpenSsl.unavailabilityCause());
+    return SslProvider.JDK;
   }
 }
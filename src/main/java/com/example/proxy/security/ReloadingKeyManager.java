@@ -0,0 +1,29 @@
+package com.example.proxy.security;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.X509ExtendedKeyManager;
+import java.net.Socket;
+import java.security.Principal;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+
+/**
+ * Key manager whose delegate can be replaced at runtime. Each handshake reads the current delegate,
+ * so new connections pick up rotated key material while established ones keep theirs.
+ */
+final class ReloadingKeyManager extends X509ExtendedKeyManager {
+  private volatile X509ExtendedKeyManager delegate;
+
+  ReloadingKeyManager(X509ExtendedKeyManager delegate){ this.delegate = delegate; }
+
+  void swap(X509ExtendedKeyManager next){ this.delegate = next; }
+
+  @Override public String[] getClientAliases(String keyType, Principal[] issuers){ return delegate.getClientAliases(keyType, issuers); }
+  @Override public String chooseClientAlias(String[] keyType, Principal[] issuers, Socket socket){ return delegate.chooseClientAlias(keyType, issuers, socket); }
+  @Override public String chooseEngineClientAlias(String[] keyType, Principal[] issuers, SSLEngine engine){ return delegate.chooseEngineClientAlias(keyType, issuers, engine); }
+  @Override public String[] getServerAliases(String keyType, Principal[] issuers){ return delegate.getServerAliases(keyType, issuers); }
+  @Override public String chooseServerAlias(String keyType, Principal[] issuers, Socket socket){ return delegate.chooseServerAlias(keyType, issuers, socket); }
+  @Override public String chooseEngineServerAlias(String keyType, Principal[] issuers, SSLEngine engine){ return delegate.chooseEngineServerAlias(keyType, issuers, engine); }
+  @Override public X509Certificate[] getCertificateChain(String alias){ return delegate.getCertificateChain(alias); }
+  @Override public PrivateKey getPrivateKey(String alias){ return delegate.getPrivateKey(alias); }
+}
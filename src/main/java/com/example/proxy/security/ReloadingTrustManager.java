@@ -0,0 +1,24 @@
+package com.example.proxy.security;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.X509ExtendedTrustManager;
+import java.net.Socket;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+
+/** Trust manager counterpart of {@link ReloadingKeyManager}. */
+final class ReloadingTrustManager extends X509ExtendedTrustManager {
+  private volatile X509ExtendedTrustManager delegate;
+
+  ReloadingTrustManager(X509ExtendedTrustManager delegate){ this.delegate = delegate; }
+
+  void swap(X509ExtendedTrustManager next){ this.delegate = next; }
+
+  @Override public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket) throws CertificateException { delegate.checkClientTrusted(chain, authType, socket); }
+  @Override public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket) throws CertificateException { delegate.checkServerTrusted(chain, authType, socket); }
+  @Override public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine) throws CertificateException { delegate.checkClientTrusted(chain, authType, engine); }
+  @Override public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine) throws CertificateException { delegate.checkServerTrusted(chain, authType, engine); }
+  @Override public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException { delegate.checkClientTrusted(chain, authType); }
+  @Override public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException { delegate.checkServerTrusted(chain, authType); }
+  @Override public X509Certificate[] getAcceptedIssuers(){ return delegate.getAcceptedIssuers(); }
+}
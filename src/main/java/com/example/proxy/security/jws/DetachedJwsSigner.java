@@ -1,11 +1,15 @@
 package com.example.proxy.security.jws;
 
 import com.nimbusds.jose.*;
-import com.nimbusds.jose.crypto.RSASSASigner;
-import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.Base64;
 
+import java.nio.charset.StandardCharsets;
 import java.security.KeyStore;
+import java.security.MessageDigest;
 import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
 import java.security.cert.X509Certificate;
 import java.io.FileInputStream;
 import java.util.Collections;
@@ -13,11 +17,19 @@ import java.util.List;
 
 /**
  * Builds detached JWS signatures for OB-style request signing.
+ * The protected header (and its base64url form) is computed once per key; each thread keeps its own
+ * initialised PS256 {@link Signature}, and the detached compact form is assembled directly.
  */
 public class DetachedJwsSigner {
 
+  private static final java.util.Base64.Encoder B64URL = java.util.Base64.getUrlEncoder().withoutPadding();
+
   private final PrivateKey privateKey;
   private final X509Certificate cert;
+  private final String keyId;
+  private final String encodedHeader;
+  private final byte[] signingInputPrefix;
+  private final ThreadLocal<Signature> signatures;
 
   public DetachedJwsSigner(String keystorePath, String keystorePassword, String keyAlias, String keyPassword) throws Exception {
     KeyStore ks = KeyStore.getInstance("PKCS12");
@@ -26,22 +38,50 @@ public class DetachedJwsSigner {
     }
     this.privateKey = (PrivateKey) ks.getKey(keyAlias, keyPassword.toCharArray());
     this.cert = (X509Certificate) ks.getCertificate(keyAlias);
-  }
+    // x5t#S256 thumbprint: changes whenever the signing certificate is rotated
+    this.keyId = B64URL.encodeToString(MessageDigest.getInstance("SHA-256").digest(cert.getEncoded()));
 
-  public String sign(String payload) throws Exception {
     JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.PS256) // commonly used in OB
             .criticalParams(Collections.singleton("b64"))
             .customParam("b64", false) // detached payload
-            .x509CertChain(List.of(Base64URL.encode(cert.getEncoded()).toString()))
+            .x509CertChain(List.of(Base64.encode(cert.getEncoded())))
             .build();
+    this.encodedHeader = header.toBase64URL().toString();
+    // with b64=false the signing input is ASCII(header) '.' raw payload bytes
+    this.signingInputPrefix = (encodedHeader + ".").getBytes(StandardCharsets.US_ASCII);
+    this.signatures = ThreadLocal.withInitial(this::newSignature);
+    newSignature(); // fail fast if the provider lacks RSASSA-PSS
+  }
+
+  public String sign(String payload) throws Exception {
+    return sign(payload.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public String sign(byte[] payload) throws Exception {
+    // initSign state is restored after sign(), so the instance is reused as-is
+    Signature s = signatures.get();
+    s.update(signingInputPrefix);
+    s.update(payload);
+    byte[] sig = s.sign();
+
+    // compact serialization with detached payload: header..signature
+    String encodedSig = B64URL.encodeToString(sig);
+    StringBuilder sb = new StringBuilder(encodedHeader.length() + 2 + encodedSig.length());
+    return sb.append(encodedHeader).append("..").append(encodedSig).toString();
+  }
+
+  public X509Certificate getCertificate(){ return cert; }
 
-    Payload p = new Payload(payload);
-    JWSObject jwsObject = new JWSObject(header, p);
-    JWSSigner signer = new RSASSASigner(privateKey);
-    jwsObject.sign(signer);
+  public String keyId(){ return keyId; }
 
-    // return compact serialized with detached payload (..signature only)
-    String[] parts = jwsObject.serialize(false).split("\.");
-    return parts[0] + ".." + parts[2];
+  private Signature newSignature(){
+    try{
+      Signature s = Signature.getInstance("RSASSA-PSS");
+      s.setParameter(new PSSParameterSpec("SHA-256", "MGF1", MGF1ParameterSpec.SHA256, 32, 1));
+      s.initSign(privateKey);
+      return s;
+    }catch(Exception e){
+      throw new IllegalStateException("PS256 signer unavailable", e);
+    }
   }
 }
@@ -0,0 +1,49 @@
+package com.example.proxy.security.jws;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Bounded cache of detached signatures keyed by signing key id and SHA-256 of the payload,
+ * so byte-identical retries are not signed again. Entries expire after a TTL. A signer with another key
+ * never hits entries made with the old one, which age out by TTL and size.
+ */
+public class JwsSignatureCache {
+
+  private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+  private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+    try{
+      return MessageDigest.getInstance("SHA-256");
+    }catch(NoSuchAlgorithmException e){
+      throw new IllegalStateException(e);
+    }
+  });
+
+  private final Cache<String, String> cache;
+
+  public JwsSignatureCache(long maxSize, Duration ttl, MeterRegistry meters){
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meters, cache, "jws-signatures");
+  }
+
+  public String sign(DetachedJwsSigner signer, byte[] payload) throws Exception {
+    String key = signer.keyId() + ':' + B64.encodeToString(SHA256.get().digest(payload));
+    String sig = cache.getIfPresent(key);
+    if (sig==null){
+      sig = signer.sign(payload);
+      cache.put(key, sig);
+    }
+    return sig;
+  }
+}
@@ -0,0 +1,41 @@
+package com.example.proxy.security.jws;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class JwsSignerConfig {
+
+  @Value("${security.jws.keystore.path:}")
+  private String jwsKsPath;
+  @Value("${security.jws.keystore.password:}")
+  private String jwsKsPassword;
+  @Value("${security.jws.key.alias:}")
+  private String jwsKeyAlias;
+  @Value("${security.jws.key.password:}")
+  private String jwsKeyPassword;
+
+  @Bean
+  @ConditionalOnExpression("!'${security.jws.keystore.path:}'.isBlank()")
+  public DetachedJwsSigner detachedJwsSigner() {
+    try {
+      return new DetachedJwsSigner(jwsKsPath, jwsKsPassword, jwsKeyAlias, jwsKeyPassword);
+    } catch (Exception e) {
+      throw new RuntimeException("Failed to init JWS signer", e);
+    }
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "security.jws.signature-cache", name = "enabled", havingValue = "true")
+  public JwsSignatureCache jwsSignatureCache(MeterRegistry meters,
+                                             @Value("${security.jws.signature-cache.max-size:10000}") long maxSize,
+                                             @Value("${security.jws.signature-cache.ttl:5m}") Duration ttl) {
+    return new JwsSignatureCache(maxSize, ttl, meters);
+  }
+}
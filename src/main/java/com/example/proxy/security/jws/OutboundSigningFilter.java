@@ -1,26 +1,40 @@
 package com.example.proxy.security.jws;
 
-import org.springframework.http.client.reactive.ClientHttpRequest;
-import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import com.example.proxy.exchange.ProxyExchangeContext;
+import com.example.proxy.metrics.Phase;
+import com.example.proxy.metrics.PhaseTimers;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.ClientRequest;
-import org.springframework.web.reactive.function.client.ClientResponse;
 import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
-
 public class OutboundSigningFilter {
 
+  private static final byte[] EMPTY = new byte[0];
+
   public static ExchangeFilterFunction withDetachedJwsHeader(DetachedJwsSigner signer){
-    return ExchangeFilterFunction.ofRequestProcessor(req -> {
-      // Read body (if present) by buffering via attribute; for simplicity assume String body set earlier
-      String body = req.attribute("proxiedBody").map(Object::toString).orElse("");
+    return withDetachedJwsHeader(signer, null);
+  }
+
+  /** As above, reusing signatures from {@code cache} (may be null) for byte-identical payloads. */
+  public static ExchangeFilterFunction withDetachedJwsHeader(DetachedJwsSigner signer, JwsSignatureCache cache){
+    return withDetachedJwsHeader(signer, cache, null);
+  }
+
+  /** As above, timing each signature as the route's {@link Phase#JWS_SIGN} when {@code phases} is set. */
+  public static ExchangeFilterFunction withDetachedJwsHeader(DetachedJwsSigner signer, JwsSignatureCache cache,
+                                                             PhaseTimers phases){
+    return (req, next) -> Mono.deferContextual(ctx -> {
+      // body bytes are published by the caller in the ProxyExchangeContext
+      ProxyExchangeContext pc = ProxyExchangeContext.from(ctx);
+      byte[] body = pc==null ? EMPTY : pc.body();
       try{
-        String sig = signer.sign(body);
+        long start = System.nanoTime();
+        String sig = cache==null ? signer.sign(body) : cache.sign(signer, body);
+        if (phases!=null && pc!=null) phases.forRoute(pc.route()).record(Phase.JWS_SIGN, start);
         ClientRequest newReq = ClientRequest.from(req)
                 .header("x-jws-signature", sig)
                 .build();
-        return Mono.just(newReq);
+        return next.exchange(newReq);
       }catch(Exception e){
         return Mono.error(e);
       }
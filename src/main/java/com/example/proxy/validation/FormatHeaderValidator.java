@@ -0,0 +1,20 @@
+package com.example.proxy.validation;
+
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import java.util.function.Predicate;
+
+/** Checks a header against one of the allocation-free {@link HeaderFormats}. */
+public class FormatHeaderValidator implements RequestValidator {
+  private final String header;
+  private final Predicate<String> format;
+  private final ValidationResult failure;
+  public FormatHeaderValidator(String h, String formatName, Predicate<String> format){
+    this.header=h;
+    this.format=format;
+    this.failure=ValidationResult.failure(ValidationResult.HEADER_INVALID, h + " must be a valid " + formatName, h);
+  }
+  @Override
+  public ValidationResult validate(ServerHttpRequest request){
+    return format.test(request.getHeaders().getFirst(header)) ? ValidationResult.OK : failure;
+  }
+}
@@ -0,0 +1,86 @@
+package com.example.proxy.validation;
+
+/**
+ * Allocation-free checks for header formats that would otherwise need a regex per call.
+ */
+public final class HeaderFormats {
+  private HeaderFormats(){}
+
+  /** Canonical 8-4-4-4-12 hex UUID. */
+  public static boolean isUuid(String s){
+    if (s==null || s.length()!=36) return false;
+    for (int i=0;i<36;i++){
+      char c = s.charAt(i);
+      if (i==8 || i==13 || i==18 || i==23){
+        if (c!='-') return false;
+      } else if (!isHex(c)){
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public static boolean isIpAddress(String s){
+    return isIpv4(s) || isIpv6(s);
+  }
+
+  public static boolean isIpv4(String s){
+    if (s==null) return false;
+    int n = s.length(), parts = 0, i = 0;
+    while (i < n){
+      int start = i, v = 0;
+      while (i < n && s.charAt(i)!='.'){
+        char c = s.charAt(i);
+        if (c<'0' || c>'9' || i-start>=3) return false;
+        v = v*10 + (c-'0');
+        i++;
+      }
+      int len = i-start;
+      if (len==0 || v>255 || (len>1 && s.charAt(start)=='0')) return false;
+      parts++;
+      if (i < n){
+        i++; // skip '.'
+        if (i==n) return false;
+      }
+    }
+    return parts==4;
+  }
+
+  /** Structural IPv6 check: hex groups of up to 4 digits, at most one "::", optional trailing dotted IPv4. */
+  public static boolean isIpv6(String s){
+    if (s==null || s.length()<2 || s.length()>45) return false;
+    int n = s.length(), groups = 0, digits = 0;
+    boolean compressed = false;
+    for (int i=0;i<n;i++){
+      char c = s.charAt(i);
+      if (c==':'){
+        if (i+1<n && s.charAt(i+1)==':'){
+          if (compressed) return false;
+          compressed = true;
+          if (digits>0) groups++;
+          digits = 0;
+          i++;
+          continue;
+        }
+        if (digits==0) return false;
+        groups++;
+        digits = 0;
+        if (i+1==n) return false;
+      } else if (c=='.'){
+        int lastColon = s.lastIndexOf(':');
+        return lastColon>0 && isIpv4(s.substring(lastColon+1)) && groups + 2 <= (compressed ? 7 : 8)
+            && (compressed || groups==6);
+      } else if (isHex(c)){
+        if (++digits>4) return false;
+      } else {
+        return false;
+      }
+    }
+    if (digits>0) groups++;
+    return compressed ? groups<8 : groups==8;
+  }
+
+  private static boolean isHex(char c){
+    return (c>='0' && c<='9') || (c>='a' && c<='f') || (c>='A' && c<='F');
+  }
+}
@@ -0,0 +1,71 @@
+package com.example.proxy.validation;
+
+import com.example.proxy.registry.OpenApiRegistry;
+import com.example.proxy.registry.OpenApiSpecReloadedEvent;
+import com.example.proxy.registry.RouteTableRefreshedEvent;
+import org.openapi4j.parser.model.v3.OpenApi3;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Validators built once per route from the {@link OpenApi3} held in {@link OpenApiRegistry}.
+ * Operations are addressable by route name, operationId and method (see {@link OperationIndex#key}).
+ */
+@Component
+public class OpenApiValidatorCache {
+  private final OpenApiRegistry registry;
+  private final ConcurrentHashMap<String, Entry> indexes = new ConcurrentHashMap<>();
+
+  public OpenApiValidatorCache(OpenApiRegistry registry){
+    this.registry = registry;
+  }
+
+  /** False while the route's spec still has to be parsed (lazy loading); {@link #resolve} would then do it inline. */
+  public boolean isReady(String routeName){
+    return registry.isLoaded(routeName);
+  }
+
+  /** Completes once the route's spec is parsed, parsing it off the calling thread if needed. */
+  public Mono<Void> load(String routeName){
+    return registry.loadAsync(routeName).then();
+  }
+
+  /** Returns null when the route has no spec or no operation matches. */
+  public ResolvedOperation resolve(String routeName, String method, String requestPath){
+    OperationIndex idx = index(routeName);
+    return idx==null ? null : idx.resolve(method, requestPath);
+  }
+
+  public ResolvedOperation get(String routeName, String operationId, String method){
+    OperationIndex idx = index(routeName);
+    return idx==null ? null : idx.byKey(OperationIndex.key(routeName, operationId, method));
+  }
+
+  /** The index always matches the spec currently published by the registry; a stale one is rebuilt. */
+  public OperationIndex index(String routeName){
+    OpenApi3 api = registry.get(routeName);
+    if (api==null) return null;
+    Entry e = indexes.get(routeName);
+    if (e!=null && e.api==api) return e.index;
+    Entry next = new Entry(api, new OperationIndex(routeName, api));
+    indexes.put(routeName, next);
+    return next.index;
+  }
+
+  /** Builds validators for a reloaded spec on the watcher thread, before requests ask for them. */
+  @EventListener
+  public void onSpecReloaded(OpenApiSpecReloadedEvent event){
+    indexes.put(event.routeName(), new Entry(event.api(), new OperationIndex(event.routeName(), event.api())));
+  }
+
+  /** Drops indexes of routes whose spec the registry removed or replaced on the refresh (it listens first). */
+  @EventListener
+  public void onRoutesRefreshed(RouteTableRefreshedEvent event){
+    indexes.entrySet().removeIf(e -> registry.ifLoaded(e.getKey())!=e.getValue().api());
+  }
+
+  private record Entry(OpenApi3 api, OperationIndex index) {}
+}
@@ -3,14 +3,22 @@ package com.example.proxy.validation;
 import org.openapi4j.operation.validator.model.Request;
 import org.openapi4j.operation.validator.model.Response;
 import org.openapi4j.operation.validator.validation.RequestValidator;
-import org.openapi4j.operation.validator.validation.ResponseValidator;
 import org.openapi4j.parser.model.v3.OpenApi3;
 
 public class OpenApiValidatorUtil {
+  /** Builds a fresh validator and re-scans the spec on every call; prefer the {@link ResolvedOperation} overloads. */
   public static void validateRequest(OpenApi3 api, Request req) throws Exception {
     new RequestValidator(api).validate(req);
   }
+  /** Builds a fresh validator and re-scans the spec on every call; prefer the {@link ResolvedOperation} overloads. */
   public static void validateResponse(OpenApi3 api, Request req, Response resp) throws Exception {
-    new ResponseValidator(api).validate(req, resp);
+    new RequestValidator(api).validate(resp, req);
+  }
+
+  public static void validateRequest(ResolvedOperation op, Request req) throws Exception {
+    op.validator().validate(req, op.path(), op.operation());
+  }
+  public static void validateResponse(ResolvedOperation op, Response resp) throws Exception {
+    op.validator().validate(resp, op.path(), op.operation());
   }
 }
@@ -0,0 +1,120 @@
+package com.example.proxy.validation;
+
+import org.openapi4j.operation.validator.validation.RequestValidator;
+import org.openapi4j.parser.model.v3.OpenApi3;
+import org.openapi4j.parser.model.v3.Operation;
+import org.openapi4j.parser.model.v3.Path;
+import org.openapi4j.parser.model.v3.Server;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-route index of the operations of one parsed spec.
+ * Non-templated paths resolve with a single hash probe; templated ones are compared segment by segment.
+ * Request paths are matched after stripping the server base paths declared in the spec.
+ */
+public final class OperationIndex {
+
+  private final List<String> basePaths = new ArrayList<>();
+  private final Map<String, ResolvedOperation> exact = new HashMap<>();
+  private final List<Template> templated = new ArrayList<>();
+  private final Map<String, ResolvedOperation> byKey = new HashMap<>();
+
+  public OperationIndex(String routeName, OpenApi3 api){
+    RequestValidator validator = new RequestValidator(api);
+    if (api.getServers()!=null){
+      for (Server s: api.getServers()){
+        String base = basePath(s.getUrl());
+        if (!base.isEmpty()) basePaths.add(base);
+      }
+    }
+    if (api.getPaths()==null) return;
+    for (Map.Entry<String, Path> pe: api.getPaths().entrySet()){
+      String template = pe.getKey();
+      Path path = pe.getValue();
+      if (path.getOperations()==null) continue;
+      for (Map.Entry<String, Operation> oe: path.getOperations().entrySet()){
+        String method = oe.getKey().toUpperCase(Locale.ROOT);
+        Operation op = oe.getValue();
+        String opId = op.getOperationId()!=null ? op.getOperationId() : method + " " + template;
+        String key = key(routeName, opId, method);
+        ResolvedOperation ro = new ResolvedOperation(key, opId, method, path, op, validator);
+        byKey.put(key, ro);
+        if (template.indexOf('{') < 0){
+          exact.put(method + " " + template, ro);
+        } else {
+          templated.add(new Template(method, template.split("/"), ro));
+        }
+      }
+    }
+  }
+
+  public static String key(String routeName, String operationId, String method){
+    return routeName + "|" + operationId + "|" + method.toUpperCase(Locale.ROOT);
+  }
+
+  public ResolvedOperation byKey(String key){ return byKey.get(key); }
+
+  public ResolvedOperation resolve(String method, String requestPath){
+    String m = method.toUpperCase(Locale.ROOT);
+    ResolvedOperation ro = lookup(m, requestPath);
+    if (ro!=null) return ro;
+    for (String base: basePaths){
+      if (requestPath.startsWith(base)){
+        ro = lookup(m, requestPath.substring(base.length()));
+        if (ro!=null) return ro;
+      }
+    }
+    return null;
+  }
+
+  private ResolvedOperation lookup(String method, String p){
+    if (p.isEmpty()) p = "/";
+    ResolvedOperation ro = exact.get(method + " " + p);
+    if (ro!=null || templated.isEmpty()) return ro;
+    String[] segs = p.split("/");
+    for (Template t: templated){
+      if (t.matches(method, segs)) return t.op;
+    }
+    return null;
+  }
+
+  private static String basePath(String url){
+    if (url==null) return "";
+    String p;
+    try {
+      p = URI.create(url).getPath();
+    } catch (IllegalArgumentException e){
+      return "";
+    }
+    if (p==null) return "";
+    return p.endsWith("/") ? p.substring(0, p.length()-1) : p;
+  }
+
+  private static final class Template {
+    final String method;
+    final String[] segments;
+    final ResolvedOperation op;
+
+    Template(String method, String[] segments, ResolvedOperation op){
+      this.method = method;
+      this.segments = segments;
+      this.op = op;
+    }
+
+    boolean matches(String m, String[] segs){
+      if (!method.equals(m) || segs.length!=segments.length) return false;
+      for (int i=0;i<segs.length;i++){
+        String s = segments[i];
+        boolean variable = s.startsWith("{") && s.endsWith("}");
+        if (variable ? segs[i].isEmpty() : !s.equals(segs[i])) return false;
+      }
+      return true;
+    }
+  }
+}
@@ -1,4 +1,7 @@
+package com.example.proxy.validation;
+
 import javax.xml.XMLConstants;
+import javax.xml.transform.Source;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
@@ -11,6 +14,12 @@ import java.io.File;
 import java.io.IOException;
 import java.util.*;
 
+/**
+ * Validates pain.001 credit transfer initiations against an ISO 20022 XSD and turns parser errors
+ * into friendly messages. The compiled {@link Schema} is thread-safe and built once per instance;
+ * each {@link #validate} call uses its own {@link Validator}. Neither the schema nor the documents may
+ * pull in external DTDs, entities or schemas (XXE).
+ */
 public class Pain001Validator {
 
     // 1. Friendly field names mapping
@@ -27,38 +36,61 @@ public class Pain001Validator {
         fieldLabels.put("CdtTrfTxInf", "Credit Transfer Transaction");
     }
 
+    private final Schema schema;
+
+    public Pain001Validator(Source xsd) throws SAXException {
+        SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        factory.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+        this.schema = factory.newSchema(xsd);
+    }
+
+    /** Friendly messages for every problem found; empty when the document is valid. */
+    public List<String> validate(Source xml) throws SAXException, IOException {
+        return validate(xml, new ArrayList<>());
+    }
+
+    /** As above, also collecting raw parser messages into {@code technicalMessages}. */
+    public List<String> validate(Source xml, List<String> technicalMessages) throws SAXException, IOException {
+        List<String> userMessages = new ArrayList<>();
+        Validator validator = schema.newValidator();
+        validator.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        validator.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        validator.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+
+        // 2. Attach custom error handler
+        validator.setErrorHandler(new DefaultHandler() {
+            @Override
+            public void error(SAXParseException e) throws SAXException {
+                handleError(e, userMessages, technicalMessages);
+            }
+
+            @Override
+            public void fatalError(SAXParseException e) throws SAXException {
+                handleError(e, userMessages, technicalMessages);
+            }
+
+            @Override
+            public void warning(SAXParseException e) {
+                technicalMessages.add("Warning at line " + e.getLineNumber() + ": " + e.getMessage());
+            }
+        });
+
+        // 3. Run validation
+        validator.validate(xml);
+        return userMessages;
+    }
+
     public static void main(String[] args) {
         File schemaFile = new File("pain.001.001.03.xsd"); // Change if you use another version
         File xmlFile = new File("pain001.xml");
 
-        List<String> userMessages = new ArrayList<>();
         List<String> technicalMessages = new ArrayList<>();
 
         try {
-            SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            Schema schema = factory.newSchema(schemaFile);
-            Validator validator = schema.newValidator();
-
-            // 2. Attach custom error handler
-            validator.setErrorHandler(new DefaultHandler() {
-                @Override
-                public void error(SAXParseException e) throws SAXException {
-                    handleError(e, userMessages, technicalMessages);
-                }
-
-                @Override
-                public void fatalError(SAXParseException e) throws SAXException {
-                    handleError(e, userMessages, technicalMessages);
-                }
-
-                @Override
-                public void warning(SAXParseException e) {
-                    technicalMessages.add("Warning at line " + e.getLineNumber() + ": " + e.getMessage());
-                }
-            });
-
-            // 3. Run validation
-            validator.validate(new StreamSource(xmlFile));
+            List<String> userMessages = new Pain001Validator(new StreamSource(schemaFile))
+                    .validate(new StreamSource(xmlFile), technicalMessages);
 
             // 4. Show results
             if (userMessages.isEmpty()) {
@@ -88,9 +120,9 @@ public class Pain001Validator {
     }
 
     private static String translateError(String raw, int line) {
-        for (String key : fieldLabels.keySet()) {
-            if (raw.contains(key)) {
-                String field = fieldLabels.get(key);
+        for (Map.Entry<String, String> e : fieldLabels.entrySet()) {
+            if (raw.contains(e.getKey())) {
+                String field = e.getValue();
 
                 if (raw.contains("not expected")) {
                     return field + " is not allowed in this section (line " + line + ").";
@@ -1,17 +1,20 @@
 package com.example.proxy.validation;
 
-import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import java.util.regex.Pattern;
 
 public class RegexHeaderValidator implements RequestValidator {
   private final String header;
   private final Pattern pattern;
-  public RegexHeaderValidator(String h, String regex){ this.header=h; this.pattern=Pattern.compile(regex); }
+  private final ValidationResult failure;
+  public RegexHeaderValidator(String h, String regex){
+    this.header=h;
+    this.pattern=Pattern.compile(regex);
+    this.failure=ValidationResult.failure(ValidationResult.HEADER_INVALID, "Invalid header " + h, h);
+  }
   @Override
-  public void validate(HttpServletRequest request){
-    String v = request.getHeader(header);
-    if (v==null || !pattern.matcher(v).matches()){
-      throw new ValidationException("Invalid header " + header);
-    }
+  public ValidationResult validate(ServerHttpRequest request){
+    String v = request.getHeaders().getFirst(header);
+    return v==null || !pattern.matcher(v).matches() ? failure : ValidationResult.OK;
   }
 }
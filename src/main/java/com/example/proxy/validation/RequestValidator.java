@@ -1,7 +1,8 @@
 package com.example.proxy.validation;
 
-import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 
 public interface RequestValidator {
-  void validate(HttpServletRequest request) throws ValidationException;
+  /** Returns {@link ValidationResult#OK} or a failure describing the first problem; never throws for bad input. */
+  ValidationResult validate(ServerHttpRequest request);
 }
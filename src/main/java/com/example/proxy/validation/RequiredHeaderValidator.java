@@ -1,14 +1,16 @@
 package com.example.proxy.validation;
 
-import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 
 public class RequiredHeaderValidator implements RequestValidator {
   private final String header;
-  public RequiredHeaderValidator(String h){ this.header = h; }
+  private final ValidationResult failure;
+  public RequiredHeaderValidator(String h){
+    this.header = h;
+    this.failure = ValidationResult.failure(ValidationResult.HEADER_MISSING, "Missing required header: " + h, h);
+  }
   @Override
-  public void validate(HttpServletRequest request){
-    if (request.getHeader(header)==null){
-      throw new ValidationException("Missing required header: " + header);
-    }
+  public ValidationResult validate(ServerHttpRequest request){
+    return request.getHeaders().getFirst(header)==null ? failure : ValidationResult.OK;
   }
 }
@@ -0,0 +1,13 @@
+package com.example.proxy.validation;
+
+import org.openapi4j.operation.validator.validation.RequestValidator;
+import org.openapi4j.parser.model.v3.Operation;
+import org.openapi4j.parser.model.v3.Path;
+
+/**
+ * A spec operation already matched to its {@link Path}, together with the shared validator of its spec.
+ * Instances are immutable and safe to use from any thread.
+ */
+public record ResolvedOperation(String key, String operationId, String method,
+                                Path path, Operation operation, RequestValidator validator) {
+}
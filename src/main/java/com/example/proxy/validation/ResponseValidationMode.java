@@ -0,0 +1,10 @@
+package com.example.proxy.validation;
+
+/**
+ * How upstream responses are checked against the route's spec.
+ * INLINE blocks the reply until validated (and turns failures into a 500); ASYNC replies immediately
+ * and validates in the background; SAMPLED does the same for a configured percentage of responses.
+ */
+public enum ResponseValidationMode {
+  INLINE, ASYNC, SAMPLED
+}
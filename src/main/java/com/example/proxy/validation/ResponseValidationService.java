@@ -0,0 +1,98 @@
+package com.example.proxy.validation;
+
+import com.example.proxy.config.RouteDefinition;
+import com.example.proxy.error.ObErrorResponse;
+import com.example.proxy.metrics.Phase;
+import com.example.proxy.metrics.PhaseTimers;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.openapi4j.operation.validator.model.impl.DefaultResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Locale;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Applies the route's {@link ResponseValidationMode}. Background validations run on a bounded scheduler;
+ * when its queue is full the validation is dropped (and counted) rather than delaying the response.
+ */
+@Component
+public class ResponseValidationService {
+  private static final Logger log = LoggerFactory.getLogger(ResponseValidationService.class);
+
+  static final String RESPONSE_INVALID = "UAE.UnexpectedError";
+
+  private final MeterRegistry meters;
+  private final PhaseTimers phases;
+  private final Scheduler scheduler;
+
+  public ResponseValidationService(MeterRegistry meters, PhaseTimers phases,
+                                   @Value("${proxy.response-validation.threads:2}") int threads,
+                                   @Value("${proxy.response-validation.queue-size:1000}") int queueSize) {
+    this.meters = meters;
+    this.phases = phases;
+    this.scheduler = Schedulers.newBoundedElastic(threads, queueSize, "resp-validation");
+  }
+
+  public Mono<ResponseEntity<String>> apply(RouteDefinition route, ResolvedOperation op, ResponseEntity<String> resp){
+    ResponseValidationMode mode = route.getResponseValidation();
+    if (mode==ResponseValidationMode.INLINE){
+      try{
+        validate(route, op, resp);
+        record(route, mode, "passed");
+      }catch(Exception e){
+        record(route, mode, "failed");
+        return Mono.just(ObErrorResponse.of(HttpStatus.INTERNAL_SERVER_ERROR, null,
+            RESPONSE_INVALID, "Response validation failed: " + e.getMessage(), null));
+      }
+      return Mono.just(resp);
+    }
+    if (mode==ResponseValidationMode.ASYNC ||
+        ThreadLocalRandom.current().nextDouble(100.0) < route.getResponseValidationSamplePercent()){
+      try{
+        scheduler.schedule(() -> validateInBackground(route, mode, op, resp));
+      }catch(RejectedExecutionException e){
+        record(route, mode, "dropped");
+      }
+    }
+    return Mono.just(resp);
+  }
+
+  private void validateInBackground(RouteDefinition route, ResponseValidationMode mode, ResolvedOperation op, ResponseEntity<String> resp){
+    try{
+      validate(route, op, resp);
+      record(route, mode, "passed");
+    }catch(Exception e){
+      record(route, mode, "failed");
+      log.warn("Response validation failed for route {} operation {}: {}", route.getName(), op.operationId(), e.getMessage());
+    }
+  }
+
+  private void validate(RouteDefinition route, ResolvedOperation op, ResponseEntity<String> resp) throws Exception {
+    long start = System.nanoTime();
+    try{
+      DefaultResponse r = new DefaultResponse.Builder(resp.getStatusCode().value())
+          .body(resp.getBody()).build();
+      OpenApiValidatorUtil.validateResponse(op, r);
+    }finally{
+      phases.forRoute(route).record(Phase.RESPONSE_VALIDATION, start);
+    }
+  }
+
+  private void record(RouteDefinition route, ResponseValidationMode mode, String outcome){
+    meters.counter("proxy.response.validation",
+        "route", route.getName(), "mode", mode.name().toLowerCase(Locale.ROOT), "outcome", outcome).increment();
+  }
+
+  @PreDestroy
+  public void shutdown(){ scheduler.dispose(); }
+}
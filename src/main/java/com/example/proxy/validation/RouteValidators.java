@@ -0,0 +1,73 @@
+package com.example.proxy.validation;
+
+import com.example.proxy.config.RouteDefinition;
+import com.example.proxy.registry.RouteRegistry;
+import com.example.proxy.registry.RouteTable;
+import com.example.proxy.registry.RouteTableRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Header validator chains compiled once per route from its profile, {@code requiredHeaders}
+ * and {@code headerPatterns}. Pattern values {@code uuid}, {@code ip}, {@code ipv4} and {@code ipv6}
+ * use allocation-free checks; anything else is compiled as a regex. Recompiled when the route table is refreshed.
+ */
+@Component
+public class RouteValidators {
+  private volatile ConcurrentHashMap<String, ValidatorChain> chains;
+
+  public RouteValidators(RouteRegistry routes){
+    this.chains = compileAll(routes.current());
+  }
+
+  @EventListener
+  public void onRoutesRefreshed(RouteTableRefreshedEvent event){
+    chains = compileAll(event.table());
+  }
+
+  public ValidatorChain forRoute(RouteDefinition route){
+    return chains.computeIfAbsent(route.getName(), n -> compile(route));
+  }
+
+  private static ConcurrentHashMap<String, ValidatorChain> compileAll(RouteTable table){
+    ConcurrentHashMap<String, ValidatorChain> m = new ConcurrentHashMap<>();
+    for (RouteDefinition r: table.routes()){
+      m.put(r.getName(), compile(r));
+    }
+    return m;
+  }
+
+  static ValidatorChain compile(RouteDefinition route){
+    List<RequestValidator> list = new ArrayList<>();
+    if ("UAE_OB".equalsIgnoreCase(route.getProfile())){
+      list.add(UaeOpenBankingValidator.INSTANCE);
+    }
+    if (route.getRequiredHeaders()!=null){
+      for (String h: route.getRequiredHeaders()){
+        list.add(new RequiredHeaderValidator(h));
+      }
+    }
+    if (route.getHeaderPatterns()!=null){
+      for (Map.Entry<String, String> e: route.getHeaderPatterns().entrySet()){
+        list.add(headerPattern(e.getKey(), e.getValue()));
+      }
+    }
+    return list.isEmpty() ? ValidatorChain.EMPTY : new ValidatorChain(list);
+  }
+
+  private static RequestValidator headerPattern(String header, String pattern){
+    switch (pattern.toLowerCase(Locale.ROOT)){
+      case "uuid": return new FormatHeaderValidator(header, "UUID", HeaderFormats::isUuid);
+      case "ip": return new FormatHeaderValidator(header, "IP address", HeaderFormats::isIpAddress);
+      case "ipv4": return new FormatHeaderValidator(header, "IPv4 address", HeaderFormats::isIpv4);
+      case "ipv6": return new FormatHeaderValidator(header, "IPv6 address", HeaderFormats::isIpv6);
+      default: return new RegexHeaderValidator(header, pattern);
+    }
+  }
+}
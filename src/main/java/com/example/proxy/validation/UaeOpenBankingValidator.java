@@ -1,32 +1,42 @@
 package com.example.proxy.validation;
 
-import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 
 /**
  * Minimal UAE Open Banking style validator (sample).
  * Checks common FAPI-style headers used by many Open Banking regimes.
  * Adjust required headers/patterns to match your UAE profile spec.
+ * Stateless; use {@link #INSTANCE}.
  */
 public class UaeOpenBankingValidator implements RequestValidator {
 
+  public static final UaeOpenBankingValidator INSTANCE = new UaeOpenBankingValidator();
+
+  private static final ValidationResult BAD_INTERACTION_ID = ValidationResult.failure(
+      ValidationResult.HEADER_INVALID, "x-fapi-interaction-id must be a UUID", "x-fapi-interaction-id");
+  private static final ValidationResult MISSING_CUSTOMER_IP = ValidationResult.failure(
+      ValidationResult.HEADER_MISSING, "Missing customer IP header", "x-customer-ip-address");
+  private static final ValidationResult MISSING_SIGNATURE = ValidationResult.failure(
+      ValidationResult.SIGNATURE_MISSING, "Missing x-jws-signature for non-GET request", "x-jws-signature");
+
   @Override
-  public void validate(HttpServletRequest request) {
+  public ValidationResult validate(ServerHttpRequest request) {
     // x-fapi-interaction-id must be a UUID
-    String interaction = request.getHeader("x-fapi-interaction-id");
-    if (interaction == null || !interaction.matches("^[0-9a-fA-F-]{36}$")) {
-      throw new ValidationException("x-fapi-interaction-id must be a UUID");
+    if (!HeaderFormats.isUuid(request.getHeaders().getFirst("x-fapi-interaction-id"))) {
+      return BAD_INTERACTION_ID;
     }
     // customer ip header present
-    if (request.getHeader("x-customer-ip-address")==null &&
-        request.getHeader("x-fapi-customer-ip-address")==null){
-      throw new ValidationException("Missing customer IP header");
+    if (request.getHeaders().getFirst("x-customer-ip-address")==null &&
+        request.getHeaders().getFirst("x-fapi-customer-ip-address")==null){
+      return MISSING_CUSTOMER_IP;
     }
     // JWS signature presence for non-GET
-    if (!"GET".equalsIgnoreCase(request.getMethod())){
-      String sig = request.getHeader("x-jws-signature");
+    if (!"GET".equalsIgnoreCase(request.getMethod().name())){
+      String sig = request.getHeaders().getFirst("x-jws-signature");
       if (sig==null || sig.isBlank()){
-        throw new ValidationException("Missing x-jws-signature for non-GET request");
+        return MISSING_SIGNATURE;
       }
     }
+    return ValidationResult.OK;
   }
 }
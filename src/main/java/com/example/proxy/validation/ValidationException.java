@@ -1,5 +0,0 @@
-package com.example.proxy.validation;
-
-public class ValidationException extends RuntimeException {
-  public ValidationException(String msg){ super(msg); }
-}
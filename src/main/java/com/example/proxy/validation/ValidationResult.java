@@ -0,0 +1,42 @@
+package com.example.proxy.validation;
+
+/**
+ * Outcome of a request check. Validators return {@link #OK} or a failure they pre-built at
+ * construction, so neither path allocates or captures a stack.
+ */
+public final class ValidationResult {
+
+  public static final ValidationResult OK = new ValidationResult(null, null, null);
+
+  public static final String HEADER_MISSING = "UAE.Header.Missing";
+  public static final String HEADER_INVALID = "UAE.Header.Invalid";
+  public static final String FIELD_INVALID = "UAE.Field.Invalid";
+  public static final String SIGNATURE_MISSING = "UAE.Signature.Missing";
+  public static final String RESOURCE_NOT_FOUND = "UAE.Resource.NotFound";
+  public static final String RATE_LIMITED = "UAE.Request.RateLimited";
+  public static final String UPSTREAM_UNAVAILABLE = "UAE.Upstream.Unavailable";
+  public static final String SERVICE_UNAVAILABLE = "UAE.Service.Unavailable";
+
+  private final String errorCode;
+  private final String message;
+  private final String path;
+
+  private ValidationResult(String errorCode, String message, String path){
+    this.errorCode = errorCode;
+    this.message = message;
+    this.path = path;
+  }
+
+  /** @param path offending header or field, may be null */
+  public static ValidationResult failure(String errorCode, String message, String path){
+    return new ValidationResult(errorCode, message, path);
+  }
+
+  public boolean isValid(){ return errorCode==null; }
+  public String errorCode(){ return errorCode; }
+  public String message(){ return message; }
+  public String path(){ return path; }
+
+  @Override
+  public String toString(){ return isValid() ? "OK" : errorCode + ": " + message; }
+}
@@ -0,0 +1,26 @@
+package com.example.proxy.validation;
+
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import java.util.List;
+
+/** Immutable sequence of validators; the first failure is reported. */
+public final class ValidatorChain implements RequestValidator {
+  public static final ValidatorChain EMPTY = new ValidatorChain(List.of());
+
+  private final RequestValidator[] validators;
+
+  public ValidatorChain(List<RequestValidator> validators){
+    this.validators = validators.toArray(new RequestValidator[0]);
+  }
+
+  public boolean isEmpty(){ return validators.length==0; }
+
+  @Override
+  public ValidationResult validate(ServerHttpRequest request){
+    for (RequestValidator v: validators){
+      ValidationResult r = v.validate(request);
+      if (!r.isValid()) return r;
+    }
+    return ValidationResult.OK;
+  }
+}
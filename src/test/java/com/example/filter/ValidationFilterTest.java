@@ -0,0 +1,156 @@
+package com.example.filter;
+
+import com.example.proxy.config.EventPipelineProperties;
+import com.example.proxy.events.ApiEvent;
+import com.example.proxy.events.ApiEventPipeline;
+import com.example.proxy.events.InMemoryApiEventPublisher;
+import com.example.proxy.events.InMemoryApiEventStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** One audit event per proxied call, OB-style 503 when the event queue is full, other paths untouched. */
+class ValidationFilterTest {
+
+  private static final String INTERACTION_ID = "93bac548-d2de-4546-b106-880a5018460d";
+
+  private final InMemoryApiEventStore store = new InMemoryApiEventStore(Duration.ZERO);
+  private ApiEventPipeline pipeline;
+
+  @AfterEach
+  void close() throws InterruptedException {
+    if (pipeline!=null) pipeline.close(1_000);
+  }
+
+  @Test
+  void recordsOneEventPerProxyCall(){
+    WebTestClient web = client(10, "audit");
+    web.get().uri("/proxy/accounts/balances").exchange().expectStatus().isOk();
+    web.get().uri("/proxy/accounts/balances").exchange().expectStatus().isOk();
+
+    await(() -> store.events().size()==2);
+    assertThat(store.events()).allSatisfy(e -> {
+      assertThat(e.getPath()).isEqualTo("/proxy/accounts/balances");
+      assertThat(e.getMethod()).isEqualTo("GET");
+      assertThat(e.isValid()).isTrue();
+      assertThat(e.getTopic()).isEqualTo("audit");
+    });
+  }
+
+  @Test
+  void badRequestIsRecordedInvalidWithoutTopic(){
+    client(10, "audit").post().uri("/proxy/payments")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue("{\"bad\":true}")
+        .exchange()
+        .expectStatus().isBadRequest();
+
+    await(() -> store.events().size()==1);
+    ApiEvent e = store.events().get(0);
+    assertThat(e.isValid()).isFalse();
+    assertThat(e.getTopic()).isNull();
+    assertThat(e.getBody()).isEqualTo("{\"bad\":true}");
+    assertThat(e.getValidationErrors()).contains("400");
+  }
+
+  @Test
+  void fullQueueIsRefusedWithObError(){
+    client(0, "audit").get().uri("/proxy/accounts/balances")
+        .header("x-fapi-interaction-id", INTERACTION_ID)
+        .exchange()
+        .expectStatus().isEqualTo(503)
+        .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "1")
+        .expectHeader().contentType(MediaType.APPLICATION_JSON)
+        .expectBody()
+        .jsonPath("$.Id").isEqualTo(INTERACTION_ID)
+        .jsonPath("$.Errors[0].ErrorCode").isEqualTo("UAE.Service.Unavailable");
+    assertThat(store.events()).isEmpty();
+  }
+
+  @Test
+  void nonProxyPathsAreLeftAlone(){
+    // with no capacity any proxied call would be refused, so a 200 shows the filter stayed out of the way
+    client(0, "audit").get().uri("/actuator/health").exchange().expectStatus().isOk();
+    assertThat(pipeline.queued()).isZero();
+    assertThat(store.events()).isEmpty();
+  }
+
+  @Test
+  void bodySplitInsideACharacterIsDecodedWhole(){
+    byte[] utf8 = "Zahlung für Müller €".getBytes(StandardCharsets.UTF_8);
+    int split = "Zahlung f".length() + 1; // between the two bytes of 'ü'
+    client(10, null).post().uri("/proxy/payments")
+        .contentType(MediaType.TEXT_PLAIN)
+        .body(BodyInserters.fromDataBuffers(Flux.just(buffer(Arrays.copyOfRange(utf8, 0, split)),
+            buffer(Arrays.copyOfRange(utf8, split, utf8.length)))))
+        .exchange()
+        .expectStatus().isOk();
+
+    await(() -> store.events().size()==1);
+    assertThat(store.events().get(0).getBody()).isEqualTo("Zahlung für Müller €");
+  }
+
+  @Test
+  void truncationDropsACharacterCutByTheLimit(){
+    String head = "a".repeat(64 * 1024 - 1);
+    client(10, null).post().uri("/proxy/payments")
+        .contentType(MediaType.TEXT_PLAIN)
+        .bodyValue(head + "é tail")
+        .exchange()
+        .expectStatus().isOk();
+
+    await(() -> store.events().size()==1);
+    assertThat(store.events().get(0).getBody()).isEqualTo(head);
+  }
+
+  private WebTestClient client(int capacity, String topic){
+    EventPipelineProperties props = new EventPipelineProperties();
+    props.setCapacity(capacity);
+    props.setBatchSize(1);
+    props.setMaxDelay(Duration.ofMillis(10));
+    pipeline = new ApiEventPipeline(store, new InMemoryApiEventPublisher(Duration.ZERO), props, new SimpleMeterRegistry());
+    return WebTestClient.bindToRouterFunction(RouterFunctions.route()
+            .GET("/proxy/accounts/balances", r -> ServerResponse.ok().bodyValue("{}"))
+            .POST("/proxy/payments", r -> r.bodyToMono(String.class).flatMap(b -> b.contains("bad")
+                ? ServerResponse.badRequest().bodyValue("invalid")
+                : ServerResponse.ok().bodyValue("accepted")))
+            .GET("/actuator/health", r -> ServerResponse.ok().bodyValue("{\"status\":\"UP\"}"))
+            .build())
+        .webFilter(new ValidationFilter(pipeline, topic))
+        .build();
+  }
+
+  private static DataBuffer buffer(byte[] bytes){
+    return DefaultDataBufferFactory.sharedInstance.wrap(bytes);
+  }
+
+  private static void await(BooleanSupplier condition){
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.getAsBoolean()){
+      assertThat(System.nanoTime()).as("condition not met within 5s").isLessThan(deadline);
+      try{
+        Thread.sleep(5);
+      }catch(InterruptedException e){
+        Thread.currentThread().interrupt();
+        throw new AssertionError(e);
+      }
+    }
+  }
+}
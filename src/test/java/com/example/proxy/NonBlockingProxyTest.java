@@ -0,0 +1,166 @@
+package com.example.proxy;
+
+import com.example.proxy.config.RouteDefinition;
+import com.example.proxy.registry.RouteRegistry;
+import com.example.proxy.support.StubUpstream;
+import com.example.proxy.support.TestKeys;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingOperationError;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the buffered, streaming and signing paths end to end (mTLS to a stub upstream) with BlockHound
+ * installed, so any blocking call on an event-loop or parallel thread fails the test.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class NonBlockingProxyTest {
+
+  private static final List<String> blockingCalls = new CopyOnWriteArrayList<>();
+  private static StubUpstream upstream;
+
+  @Autowired
+  private WebTestClient web;
+
+  @Autowired
+  private RouteRegistry routes;
+
+  @BeforeAll
+  static void installBlockHound(){
+    BlockHound.builder()
+        // SecureRandom reads /dev/urandom through a FileInputStream; that read never waits
+        .allowBlockingCallsInside("java.security.SecureRandom", "nextBytes")
+        .blockingMethodCallback(m -> {
+          blockingCalls.add(m + " on " + Thread.currentThread().getName());
+          throw new BlockingOperationError(m);
+        })
+        .install();
+  }
+
+  @DynamicPropertySource
+  static void properties(DynamicPropertyRegistry registry){
+    KeyPair caKeys = TestKeys.rsa();
+    X509Certificate ca = TestKeys.ca(caKeys, "Proxy Test CA");
+    KeyPair bankKeys = TestKeys.rsa();
+    KeyPair clientKeys = TestKeys.rsa();
+    KeyPair jwsKeys = TestKeys.rsa();
+    upstream = new StubUpstream(bankKeys, TestKeys.issue(caKeys, ca, bankKeys.getPublic(), "stub-bank"), ca);
+
+    registry.add("security.mtls.provider", () -> "JDK");
+    registry.add("security.mtls.reload-interval", () -> "0");
+    registry.add("security.mtls.keystore.path",
+        () -> TestKeys.pkcs12("client", clientKeys, TestKeys.issue(caKeys, ca, clientKeys.getPublic(), "proxy-tpp"), ca).toString());
+    registry.add("security.mtls.keystore.password", () -> TestKeys.PASSWORD);
+    registry.add("security.mtls.truststore.path", () -> TestKeys.truststore("ca", ca).toString());
+    registry.add("security.mtls.truststore.password", () -> TestKeys.PASSWORD);
+    registry.add("security.jws.keystore.path",
+        () -> TestKeys.pkcs12("signer", jwsKeys, TestKeys.selfSigned(jwsKeys, "proxy-signer")).toString());
+    registry.add("security.jws.keystore.password", () -> TestKeys.PASSWORD);
+    registry.add("security.jws.key.alias", () -> "signer");
+    registry.add("security.jws.key.password", () -> TestKeys.PASSWORD);
+    registry.add("proxy.openapi.watch", () -> "false");
+
+    registry.add("proxy.routes[0].name", () -> "buffered");
+    registry.add("proxy.routes[0].path", () -> "/proxy/buffered/**");
+    registry.add("proxy.routes[0].targetUrl", () -> upstream.url("/balances"));
+    registry.add("proxy.routes[1].name", () -> "streamed");
+    registry.add("proxy.routes[1].path", () -> "/proxy/streamed/**");
+    registry.add("proxy.routes[1].targetUrl", () -> upstream.url("/download"));
+    registry.add("proxy.routes[1].streaming", () -> "true");
+    registry.add("proxy.routes[2].name", () -> "signed");
+    registry.add("proxy.routes[2].path", () -> "/proxy/signed/**");
+    registry.add("proxy.routes[2].targetUrl", () -> upstream.url("/payment-consents"));
+    registry.add("proxy.routes[2].signRequests", () -> "true");
+  }
+
+  @AfterEach
+  void noBlockingCalls(){
+    assertThat(blockingCalls).isEmpty();
+  }
+
+  @AfterAll
+  static void stopUpstream(){
+    if (upstream!=null) upstream.close();
+  }
+
+  @Test
+  void bufferedGet(){
+    web.get().uri("/proxy/buffered/accounts/acc-1/balances")
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody(String.class).value(body -> assertThat(body).contains("125430.75"));
+  }
+
+  @Test
+  void streamedDownload(){
+    web.get().uri("/proxy/streamed/documents/statement.pdf")
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().contentLength(StubUpstream.DOWNLOAD_BYTES)
+        .expectBody(byte[].class).value(body -> assertThat(body).hasSize(StubUpstream.DOWNLOAD_BYTES));
+  }
+
+  @Test
+  void specRouteAddedByRefresh(@TempDir Path dir) throws Exception {
+    Path spec = Files.writeString(dir.resolve("refreshed.yaml"), """
+        openapi: 3.0.3
+        info: { title: Refreshed, version: '1' }
+        servers:
+          - url: /proxy/refreshed
+        paths:
+          /balances:
+            get:
+              responses:
+                '200':
+                  description: ok
+                  content:
+                    application/json:
+                      schema:
+                        type: object
+                        properties:
+                          Data: { type: object }
+        """);
+    RouteDefinition route = new RouteDefinition();
+    route.setName("refreshed");
+    route.setPath("/proxy/refreshed/**");
+    route.setTargetUrl(upstream.url("/balances"));
+    route.setOpenApiSpec(spec.toString());
+    List<RouteDefinition> next = new ArrayList<>(routes.current().routes());
+    next.add(route);
+    routes.refresh(next);
+
+    web.get().uri("/proxy/refreshed/balances")
+        .exchange()
+        .expectStatus().is2xxSuccessful()
+        .expectBody(String.class).value(body -> assertThat(body).contains("125430.75"));
+  }
+
+  @Test
+  void signedPost(){
+    web.post().uri("/proxy/signed/payment-consents")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue("{\"Data\":{\"Initiation\":{\"InstructedAmount\":{\"Amount\":\"100.00\",\"Currency\":\"AED\"}}}}")
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().value("x-upstream-jws", jws -> assertThat(jws).matches("[^.]+\\.\\.[^.]+"));
+  }
+}
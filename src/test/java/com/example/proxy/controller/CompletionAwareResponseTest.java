@@ -0,0 +1,74 @@
+package com.example.proxy.controller;
+
+import com.example.proxy.config.UpstreamGuardProperties;
+import com.example.proxy.resilience.GuardedStream;
+import com.example.proxy.resilience.UpstreamGuard;
+import com.example.proxy.resilience.UpstreamGuards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.reactive.result.view.ViewResolver;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** The upstream guard's slot for a streamed call is freed when the response ends, body subscribed or not. */
+class CompletionAwareResponseTest {
+
+  private static final ServerResponse.Context CONTEXT = new ServerResponse.Context() {
+    @Override
+    public List<HttpMessageWriter<?>> messageWriters(){ return HandlerStrategies.withDefaults().messageWriters(); }
+
+    @Override
+    public List<ViewResolver> viewResolvers(){ return List.of(); }
+  };
+
+  private final UpstreamGuards guards = new UpstreamGuards(new UpstreamGuardProperties(), new SimpleMeterRegistry());
+  private final UpstreamGuard guard = guards.forTarget("https://bank.example/statements");
+
+  @Test
+  void slotFreedWhenBodyIsDropped(){
+    MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/proxy/streamed/x"));
+    // the write fails before it subscribes to the body, as when the client is gone after the headers
+    exchange.getResponse().setWriteHandler(body -> Mono.error(new IOException("client gone")));
+
+    ServerResponse response = relay();
+    assertThat(guard.inflight()).isEqualTo(1);
+
+    response.writeTo(exchange, CONTEXT).onErrorResume(IOException.class, e -> Mono.empty()).block();
+    assertThat(guard.inflight()).isZero();
+  }
+
+  @Test
+  void slotFreedOnceWhenBodyCompletes(){
+    MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/proxy/streamed/x"));
+
+    relay().writeTo(exchange, CONTEXT).block();
+    assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("chunk-1chunk-2");
+    assertThat(guard.inflight()).isZero();
+  }
+
+  private ServerResponse relay(){
+    Flux<DataBuffer> upstreamBody = Flux.just("chunk-1", "chunk-2")
+        .map(s -> DefaultDataBufferFactory.sharedInstance.wrap(s.getBytes(StandardCharsets.UTF_8)));
+    GuardedStream<DataBuffer> guarded = guards.protectStream("https://bank.example/statements",
+        Mono.just(ResponseEntity.ok(upstreamBody))).block();
+    ServerResponse inner = ServerResponse.ok()
+        .body(BodyInserters.fromDataBuffers(guarded.response().getBody()))
+        .block();
+    return new CompletionAwareResponse(inner, guarded::release);
+  }
+}
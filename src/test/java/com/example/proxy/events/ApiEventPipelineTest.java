@@ -0,0 +1,131 @@
+package com.example.proxy.events;
+
+import com.example.proxy.config.EventPipelineProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Batching, backpressure and shutdown of the write-behind, against recording stand-ins. */
+class ApiEventPipelineTest {
+
+  private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+  private final List<List<ApiEvent>> stored = new CopyOnWriteArrayList<>();
+  private final List<List<ApiEvent>> published = new CopyOnWriteArrayList<>();
+  private ApiEventPipeline pipeline;
+
+  @AfterEach
+  void close() throws InterruptedException {
+    if (pipeline!=null) pipeline.close(1_000);
+  }
+
+  @Test
+  void flushesOnceBatchSizeIsQueued() throws InterruptedException {
+    pipeline = new ApiEventPipeline(stored::add, published::add, props(100, 5, Duration.ofSeconds(30)), meters);
+    for (int i=0; i<4; i++) assertThat(pipeline.submit(new ApiEvent())).isTrue();
+    Thread.sleep(100);
+    assertThat(stored).isEmpty();
+
+    pipeline.submit(new ApiEvent());
+    await(() -> published.size()==1);
+    assertThat(stored).singleElement().satisfies(b -> assertThat(b).hasSize(5));
+    assertThat(count("persisted")).isEqualTo(5);
+    assertThat(count("published")).isEqualTo(5);
+  }
+
+  @Test
+  void flushesPartialBatchAfterMaxDelay(){
+    pipeline = new ApiEventPipeline(stored::add, published::add, props(100, 100, Duration.ofMillis(50)), meters);
+    for (int i=0; i<3; i++) pipeline.submit(new ApiEvent());
+    await(() -> stored.size()==1);
+    assertThat(stored.get(0)).hasSize(3);
+  }
+
+  @Test
+  void dropsWhenQueueIsFull() throws InterruptedException {
+    CountDownLatch entered = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ApiEventStore blocking = batch -> {
+      entered.countDown();
+      release.await();
+      stored.add(batch);
+    };
+    pipeline = new ApiEventPipeline(blocking, published::add, props(2, 1, Duration.ofMillis(10)), meters);
+
+    pipeline.submit(new ApiEvent());
+    assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue(); // writer holds the first event
+    assertThat(pipeline.submit(new ApiEvent())).isTrue();
+    assertThat(pipeline.submit(new ApiEvent())).isTrue();
+    assertThat(pipeline.hasCapacity()).isFalse();
+    assertThat(pipeline.submit(new ApiEvent())).isFalse();
+    assertThat(count("dropped")).isEqualTo(1);
+
+    release.countDown();
+    await(() -> stored.size()==3);
+    assertThat(pipeline.hasCapacity()).isTrue();
+  }
+
+  @Test
+  void batchTheStoreRefusesIsNotPublished(){
+    AtomicInteger attempts = new AtomicInteger();
+    ApiEventStore failing = batch -> {
+      attempts.incrementAndGet();
+      throw new IllegalStateException("database down");
+    };
+    EventPipelineProperties props = props(100, 1, Duration.ofMillis(10));
+    props.setMaxRetries(2);
+    props.setRetryBackoff(Duration.ofMillis(1));
+    pipeline = new ApiEventPipeline(failing, published::add, props, meters);
+
+    pipeline.submit(new ApiEvent());
+    await(() -> count("persist_failed")==1);
+    assertThat(attempts).hasValue(3);
+    assertThat(published).isEmpty();
+    assertThat(count("persisted")).isZero();
+  }
+
+  @Test
+  void closeDrainsQueuedEvents() throws InterruptedException {
+    pipeline = new ApiEventPipeline(stored::add, published::add, props(100, 50, Duration.ofSeconds(30)), meters);
+    for (int i=0; i<7; i++) pipeline.submit(new ApiEvent());
+
+    pipeline.close(5_000);
+    assertThat(stored.stream().mapToInt(List::size).sum()).isEqualTo(7);
+    assertThat(published.stream().mapToInt(List::size).sum()).isEqualTo(7);
+    assertThat(pipeline.submit(new ApiEvent())).isFalse();
+  }
+
+  private static EventPipelineProperties props(int capacity, int batchSize, Duration maxDelay){
+    EventPipelineProperties p = new EventPipelineProperties();
+    p.setCapacity(capacity);
+    p.setBatchSize(batchSize);
+    p.setMaxDelay(maxDelay);
+    return p;
+  }
+
+  private double count(String result){
+    return meters.counter("proxy.events", "result", result).count();
+  }
+
+  private static void await(BooleanSupplier condition){
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.getAsBoolean()){
+      assertThat(System.nanoTime()).as("condition not met within 5s").isLessThan(deadline);
+      try{
+        Thread.sleep(5);
+      }catch(InterruptedException e){
+        Thread.currentThread().interrupt();
+        throw new AssertionError(e);
+      }
+    }
+  }
+}
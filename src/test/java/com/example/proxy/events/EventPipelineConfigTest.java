@@ -0,0 +1,45 @@
+package com.example.proxy.events;
+
+import com.example.filter.ValidationFilter;
+import com.example.proxy.config.EventPipelineProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** The pipeline and its filter exist only under {@code proxy.events.enabled}; stand-ins give way to real beans. */
+class EventPipelineConfigTest {
+
+  private final ApplicationContextRunner runner = new ApplicationContextRunner()
+      .withConfiguration(AutoConfigurations.of(ConfigurationPropertiesAutoConfiguration.class))
+      .withUserConfiguration(EventPipelineProperties.class, EventPipelineConfig.class)
+      .withBean(MeterRegistry.class, SimpleMeterRegistry::new);
+
+  @Test
+  void disabledByDefault(){
+    runner.run(ctx -> assertThat(ctx)
+        .doesNotHaveBean(ApiEventPipeline.class)
+        .doesNotHaveBean(ValidationFilter.class));
+  }
+
+  @Test
+  void enabledWiresPipelineAndFilter(){
+    runner.withPropertyValues("proxy.events.enabled=true", "proxy.events.topic=audit")
+        .run(ctx -> assertThat(ctx)
+            .hasSingleBean(ApiEventPipeline.class)
+            .hasSingleBean(ValidationFilter.class)
+            .getBean(ApiEventStore.class).isInstanceOf(InMemoryApiEventStore.class));
+  }
+
+  @Test
+  void providedStoreReplacesStandIn(){
+    ApiEventStore store = batch -> {};
+    runner.withPropertyValues("proxy.events.enabled=true")
+        .withBean(ApiEventStore.class, () -> store)
+        .run(ctx -> assertThat(ctx.getBean(ApiEventStore.class)).isSameAs(store));
+  }
+}
@@ -0,0 +1,120 @@
+package com.example.proxy.support;
+
+import io.netty.handler.ssl.ClientAuth;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslHandler;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bank API stand-in that requires a client certificate issued by the test CA.
+ * {@code /download} answers with {@link #DOWNLOAD_BYTES} bytes sent in 16 KB chunks; any other path answers
+ * with a JSON document (by default a small balances document, see {@link #json}) after an optional delay.
+ * A received {@code x-jws-signature} is echoed back as {@code x-upstream-jws}.
+ * <p>
+ * Runs on its own {@code stub-*} event loops and waits out delays on its own {@code stub-delay-*} timer
+ * threads, so the load harness can leave its CPU and allocations out of the proxy's. Completed TLS
+ * handshakes are counted per connection. Shared with the benchmarks module through the test-jar.
+ */
+public final class StubUpstream implements AutoCloseable {
+  public static final int DOWNLOAD_BYTES = 512 * 1024;
+
+  private static final byte[] JSON = "{\"Data\":{\"Balance\":[{\"Amount\":{\"Amount\":\"125430.75\",\"Currency\":\"AED\"}}]}}"
+      .getBytes(StandardCharsets.UTF_8);
+
+  private final LoopResources loops;
+  private final Scheduler delays;
+  private final DisposableServer server;
+  private final LongAdder handshakes = new LongAdder();
+
+  public StubUpstream(KeyPair keys, X509Certificate cert, X509Certificate ca){
+    this(keys, cert, ca, JSON, () -> 0);
+  }
+
+  /** Answers non-download paths with {@code body} after {@code delayNanos} (sampled per request; 0 = at once). */
+  public StubUpstream(KeyPair keys, X509Certificate cert, X509Certificate ca, byte[] body, LongSupplier delayNanos){
+    SslContext ssl;
+    try{
+      ssl = SslContextBuilder.forServer(keys.getPrivate(), cert)
+          .trustManager(ca)
+          .clientAuth(ClientAuth.REQUIRE)
+          .build();
+    }catch(Exception e){
+      throw new IllegalStateException("Cannot build stub TLS context", e);
+    }
+    this.loops = LoopResources.create("stub", Math.max(2, Runtime.getRuntime().availableProcessors() / 2), true);
+    this.delays = Schedulers.newParallel("stub-delay", 2, true);
+    byte[] chunk = new byte[16 * 1024];
+    Arrays.fill(chunk, (byte) 'x');
+    this.server = HttpServer.create()
+        .host("127.0.0.1")
+        .port(0)
+        .runOn(loops)
+        .secure(spec -> spec.sslContext(ssl))
+        .doOnChannelInit((observer, channel, address) -> {
+          SslHandler tls = channel.pipeline().get(SslHandler.class);
+          if (tls!=null) tls.handshakeFuture().addListener(f -> {
+            if (f.isSuccess()) handshakes.increment();
+          });
+        })
+        .handle((req, res) -> {
+          String jws = req.requestHeaders().get("x-jws-signature");
+          if (jws!=null) res.header("x-upstream-jws", jws);
+          if (req.uri().startsWith("/download")){
+            return req.receive().then(res
+                .header("content-type", "application/octet-stream")
+                .header("content-length", Integer.toString(DOWNLOAD_BYTES))
+                .sendByteArray(Flux.range(0, DOWNLOAD_BYTES / chunk.length).map(i -> chunk))
+                .then());
+          }
+          long delay = delayNanos.getAsLong();
+          Mono<Void> send = req.receive().then(res
+              .header("content-type", "application/json")
+              .header("content-length", Integer.toString(body.length))
+              .sendByteArray(Mono.just(body))
+              .then());
+          return delay <= 0 ? send : Mono.delay(Duration.ofNanos(delay), delays).then(send);
+        })
+        .bindNow();
+  }
+
+  public String url(String path){ return "https://localhost:" + server.port() + path; }
+
+  public int port(){ return server.port(); }
+
+  /** TLS handshakes completed since the stub started. */
+  public long handshakes(){ return handshakes.sum(); }
+
+  /** OB-style balances document padded to {@code size} bytes. */
+  public static byte[] json(int size){
+    String head = "{\"Data\":{\"Balance\":[{\"AccountId\":\"acc-7f3c1a2e-0001\",\"CreditDebitIndicator\":\"Credit\","
+        + "\"Type\":\"InterimAvailable\",\"DateTime\":\"2024-06-11T09:15:42+04:00\","
+        + "\"Amount\":{\"Amount\":\"125430.75\",\"Currency\":\"AED\"}}]},\"Meta\":{\"Padding\":\"";
+    String tail = "\"}}";
+    StringBuilder sb = new StringBuilder(Math.max(size, head.length() + tail.length()));
+    sb.append(head);
+    while (sb.length() + tail.length() < size) sb.append('x');
+    return sb.append(tail).toString().getBytes(StandardCharsets.US_ASCII);
+  }
+
+  @Override
+  public void close(){
+    server.disposeNow();
+    delays.dispose();
+    loops.dispose();
+  }
+}
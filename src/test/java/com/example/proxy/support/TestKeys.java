@@ -0,0 +1,114 @@
+package com.example.proxy.support;
+
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.BasicConstraints;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.asn1.x509.KeyUsage;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Throwaway RSA keys, a test CA and the certificates it issues, so no key material is checked in. */
+public final class TestKeys {
+  private TestKeys(){}
+
+  public static final String PASSWORD = "changeit";
+
+  private static final AtomicLong SERIAL = new AtomicLong(System.currentTimeMillis());
+
+  public static KeyPair rsa(){
+    try{
+      KeyPairGenerator g = KeyPairGenerator.getInstance("RSA");
+      g.initialize(2048);
+      return g.generateKeyPair();
+    }catch(Exception e){
+      throw new IllegalStateException(e);
+    }
+  }
+
+  public static X509Certificate selfSigned(KeyPair keys, String cn){
+    return issue(keys.getPrivate(), "CN=" + cn, keys.getPublic(), "CN=" + cn, false);
+  }
+
+  /** Self-signed CA certificate. */
+  public static X509Certificate ca(KeyPair keys, String cn){
+    return issue(keys.getPrivate(), "CN=" + cn, keys.getPublic(), "CN=" + cn, true);
+  }
+
+  /** End-entity certificate issued by {@code ca}, valid for {@code localhost} and {@code 127.0.0.1}. */
+  public static X509Certificate issue(KeyPair caKeys, X509Certificate ca, PublicKey subject, String cn){
+    return issue(caKeys.getPrivate(), ca.getSubjectX500Principal().getName(), subject, "CN=" + cn, false);
+  }
+
+  private static X509Certificate issue(PrivateKey issuerKey, String issuer, PublicKey subject, String dn, boolean ca){
+    try{
+      Instant now = Instant.now();
+      JcaX509v3CertificateBuilder b = new JcaX509v3CertificateBuilder(new X500Name(issuer),
+          BigInteger.valueOf(SERIAL.incrementAndGet()), Date.from(now.minus(Duration.ofDays(1))),
+          Date.from(now.plus(Duration.ofDays(30))), new X500Name(dn), subject);
+      b.addExtension(Extension.basicConstraints, true, new BasicConstraints(ca));
+      if (ca){
+        b.addExtension(Extension.keyUsage, true, new KeyUsage(KeyUsage.keyCertSign | KeyUsage.cRLSign));
+      } else {
+        b.addExtension(Extension.keyUsage, true, new KeyUsage(KeyUsage.digitalSignature | KeyUsage.keyEncipherment));
+        b.addExtension(Extension.subjectAlternativeName, false, new GeneralNames(new GeneralName[]{
+            new GeneralName(GeneralName.dNSName, "localhost"),
+            new GeneralName(GeneralName.iPAddress, "127.0.0.1")}));
+      }
+      return new JcaX509CertificateConverter()
+          .getCertificate(b.build(new JcaContentSignerBuilder("SHA256withRSA").build(issuerKey)));
+    }catch(Exception e){
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** PKCS12 file holding {@code alias} -> key + chain, protected by {@link #PASSWORD}. */
+  public static Path pkcs12(String alias, KeyPair keys, X509Certificate... chain){
+    try{
+      KeyStore ks = KeyStore.getInstance("PKCS12");
+      ks.load(null, null);
+      ks.setKeyEntry(alias, keys.getPrivate(), PASSWORD.toCharArray(), chain);
+      return store(ks, alias, ".p12");
+    }catch(Exception e){
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** JKS trust store holding {@code cert}, protected by {@link #PASSWORD}. */
+  public static Path truststore(String alias, X509Certificate cert){
+    try{
+      KeyStore ks = KeyStore.getInstance("JKS");
+      ks.load(null, null);
+      ks.setCertificateEntry(alias, cert);
+      return store(ks, alias, ".jks");
+    }catch(Exception e){
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static Path store(KeyStore ks, String alias, String suffix) throws Exception {
+    Path p = Files.createTempFile("proxy-test-" + alias, suffix);
+    try(OutputStream out = Files.newOutputStream(p)){
+      ks.store(out, PASSWORD.toCharArray());
+    }
+    p.toFile().deleteOnExit();
+    return p;
+  }
+}